@@ -8,9 +8,11 @@ import javafx.stage.Stage;
 
 public class BlackHoleSimApp extends Application {
 
+    private MainView view;
+
     @Override
     public void start(Stage stage) {
-        MainView view = new MainView();
+        view = new MainView();
 
         Scene scene = new Scene(view.getRoot(), 1180, 720);
         scene.getStylesheets().add(getClass().getResource("/styles/app.css").toExternalForm());
@@ -25,6 +27,11 @@ stage.setTitle("Black Hole Simulator (JavaFX)");
         view.start();
     }
 
+    @Override
+    public void stop() {
+        if (view != null) view.stop();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,209 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Argb;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.DerivedQuantities;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+import com.basas.blackholesim.core.physics.Relativity;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Accretion disks as cached textures. A disk only depends on the hole's mass
+ * and spin, G, c and the relativity mode, so it is rasterized once into an
+ * ARGB image (26 emissive rings with their redshift / Doppler colour across
+ * the ring) and each frame just draws that image scaled around the hole.
+ *
+ * Rasters are built on a background thread, at a power-of-two pixels per
+ * world unit at or above the zoom; zooming keeps drawing the previous raster,
+ * scaled, until the sharper one is ready. Holes with equal mass and spin share
+ * a texture. Disks outside the viewport or only a few pixels across are
+ * skipped and request no raster; their layer is kept while the hole exists,
+ * and layers of holes no longer in the scene are dropped.
+ */
+final class AccretionDiskCache {
+
+    static final int RINGS = 26;
+    private static final double EMISSIVITY_INDEX = 3.0;
+    private static final double BASE_ALPHA = 0.22;
+    private static final double MAX_ALPHA = 0.65;
+    // World width of a ring line; it never gets thinner than one pixel.
+    private static final double RING_WIDTH = 0.9;
+
+    private static final int MAX_TEXTURE = 2048;
+    private static final int MIN_TEXTURE = 8;
+    // Screen radius in pixels below which a disk is not drawn at all.
+    private static final double MIN_SCREEN_RADIUS = 3.0;
+
+    record Key(double mass, double spin, double G, double c, RelativityMode mode) { }
+
+    // Square ARGB texture covering [-radius, radius]^2 around the hole, at scale pixels per world unit.
+    record Raster(int[] pixels, int size, double radius, double scale) { }
+
+    private static final class Layer {
+        volatile Raster ready;
+        volatile double requestedScale = Double.NaN;
+        // Set once the layer left the cache; its queued rasters are skipped.
+        volatile boolean dropped;
+        Raster shown;
+        WritableImage image;
+        long lastFrame;
+    }
+
+    private final Map<Key, Layer> layers = new HashMap<>();
+    private ExecutorService raster;
+    private long frame = 0;
+
+    void draw(GraphicsContext g, Camera camera, BlackHole bh, PhysicsParams p) {
+        Key key = new Key(bh.getMass(), bh.getSpin(), p.G, p.c, p.relativityMode);
+        Layer layer = layers.computeIfAbsent(key, k -> new Layer());
+        layer.lastFrame = frame;
+
+        // Off screen, or too small to show rings next to the horizon glyph: nothing to draw or rasterize.
+        DerivedQuantities d = bh.derived(p);
+        double extent = outerRadius(d) + RING_WIDTH;
+        if (camera.worldToScreenLength(extent) < MIN_SCREEN_RADIUS) return;
+        if (!camera.isVisible(bh.getPosition().x, bh.getPosition().y, extent)) return;
+
+        double scale = textureScale(camera.getZoom(), d);
+        if (scale != layer.requestedScale) {
+            layer.requestedScale = scale;
+            requestRaster(key, layer, scale);
+        }
+
+        Raster r = layer.ready;
+        if (r == null) return;
+        if (r != layer.shown) {
+            if (layer.image == null || (int) layer.image.getWidth() != r.size()) {
+                layer.image = new WritableImage(r.size(), r.size());
+            }
+            layer.image.getPixelWriter().setPixels(0, 0, r.size(), r.size(), PixelFormat.getIntArgbInstance(),
+                    r.pixels(), 0, r.size());
+            layer.shown = r;
+        }
+
+        double half = camera.worldToScreenLength(r.radius());
+        double cx = camera.worldToScreenX(bh.getPosition().x);
+        double cy = camera.worldToScreenY(bh.getPosition().y);
+        g.drawImage(layer.image, cx - half, cy - half, 2.0 * half, 2.0 * half);
+    }
+
+    // Called once per rendered frame, after all disks were drawn.
+    void endFrame() {
+        for (Iterator<Layer> it = layers.values().iterator(); it.hasNext(); ) {
+            Layer layer = it.next();
+            if (layer.lastFrame != frame) {
+                layer.dropped = true;
+                it.remove();
+            }
+        }
+        frame++;
+    }
+
+    private void requestRaster(Key key, Layer layer, double scale) {
+        if (raster == null) {
+            raster = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "disk-raster");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        PhysicsParams p = new PhysicsParams();
+        p.G = key.G();
+        p.c = key.c();
+        p.relativityMode = key.mode();
+        raster.execute(() -> {
+            // The hole left the scene (or changed mass or spin), or a newer zoom level was requested,
+            // while this one waited in the queue.
+            if (layer.dropped || layer.requestedScale != scale) return;
+            layer.ready = rasterize(key.mass(), key.spin(), p, scale);
+        });
+    }
+
+    private static double textureScale(double zoom, DerivedQuantities d) {
+        double extent = 2.0 * (outerRadius(d) + RING_WIDTH);
+        int e = Math.getExponent(zoom);
+        double scale = Math.scalb(1.0, zoom > Math.scalb(1.0, e) ? e + 1 : e);
+        while (extent * scale > MAX_TEXTURE) scale *= 0.5;
+        while (extent * scale < MIN_TEXTURE) scale *= 2.0;
+        return scale;
+    }
+
+    private static double innerRadius(DerivedQuantities d) {
+        return Math.max(d.iscoRadius(), d.horizonRadius() * 1.06);
+    }
+
+    private static double outerRadius(DerivedQuantities d) {
+        return innerRadius(d) * 6.5;
+    }
+
+    static Raster rasterize(double mass, double spin, PhysicsParams p, double scale) {
+        BlackHole bh = new BlackHole("disk", new Vec2(0, 0), new Vec2(0, 0), mass, spin);
+        DerivedQuantities d = bh.derived(p);
+        double rin = innerRadius(d);
+        double rout = outerRadius(d);
+        double spacing = (rout - rin) / RINGS;
+        double halfWidth = 0.5 * Math.max(RING_WIDTH, 1.0 / scale);
+
+        // Everything but the Doppler factor depends on the ring only.
+        double[] ringR = new double[RINGS];
+        double[] ringAlpha = new double[RINGS];
+        double[] ringGrav = new double[RINGS];
+        double[] ringV = new double[RINGS];
+        double[] ringGamma = new double[RINGS];
+        for (int k = 0; k < RINGS; k++) {
+            double r = rin + (k + 0.5) * spacing;
+            ringR[k] = r;
+            ringAlpha[k] = Math.min(MAX_ALPHA, BASE_ALPHA * Math.pow(r / rin, -EMISSIVITY_INDEX));
+            ringGrav[k] = Relativity.gravitationalRedshiftFactor(bh, p, r);
+            double v = Relativity.keplerianSpeed(bh, p, r);
+            ringV[k] = v;
+            ringGamma[k] = 1.0 / Math.sqrt(Math.max(1e-9, 1.0 - v * v));
+        }
+
+        double radius = rout + RING_WIDTH;
+        int size = Math.max(1, (int) Math.ceil(2.0 * radius * scale));
+        radius = size / (2.0 * scale);
+        int[] pixels = new int[size * size];
+        double inv = 1.0 / scale;
+        for (int py = 0; py < size; py++) {
+            double wy = (py + 0.5) * inv - radius;
+            for (int px = 0; px < size; px++) {
+                double wx = (px + 0.5) * inv - radius;
+                double r = Math.sqrt(wx * wx + wy * wy);
+                int k = (int) Math.floor((r - rin) / spacing);
+                if (k < 0) k = 0;
+                if (k >= RINGS) k = RINGS - 1;
+                double coverage = (halfWidth - Math.abs(r - ringR[k])) * scale + 0.5;
+                if (coverage <= 0.0) continue;
+
+                // Line of sight along x: the orbital velocity (-sin phi, cos phi) projects to -sin phi = -wy / r.
+                double doppler = 1.0 / (ringGamma[k] * (1.0 + ringV[k] * wy / Math.max(1e-12, r)));
+                double gFactor = Math.max(0.05, Math.min(3.0, ringGrav[k] * doppler));
+                pixels[py * size + px] = diskArgb(gFactor, ringAlpha[k] * Math.min(1.0, coverage));
+            }
+        }
+        return new Raster(pixels, size, radius, scale);
+    }
+
+    static int diskArgb(double g, double alpha) {
+        double k = g - 1.0;
+        double blue = clamp01(0.20 + Math.max(0.0, k) * 0.65);
+        double red = clamp01(0.85 + Math.max(0.0, -k) * 0.65);
+        double green = clamp01(0.50 + Math.max(0.0, -k) * 0.15);
+        return Argb.rgb((int) (255 * red), (int) (255 * green), (int) (255 * blue), clamp01(alpha));
+    }
+
+    private static double clamp01(double v) {
+        return Math.max(0.0, Math.min(1.0, v));
+    }
+}
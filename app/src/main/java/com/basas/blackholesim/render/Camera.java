@@ -0,0 +1,106 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.math.Vec2;
+
+
+public class Camera {
+    private final Vec2 centerWorld = new Vec2(0, 0);
+    private double zoom = 1.0;
+
+    
+    private double viewportW = 100;
+    private double viewportH = 100;
+
+    public void setViewport(double w, double h) {
+        this.viewportW = Math.max(1, w);
+        this.viewportH = Math.max(1, h);
+    }
+
+    public double getViewportWidth() {
+        return viewportW;
+    }
+
+    public double getViewportHeight() {
+        return viewportH;
+    }
+
+    public Vec2 getCenterWorld() {
+        return centerWorld;
+    }
+
+    public void setCenterWorld(double x, double y) {
+        centerWorld.set(x, y);
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public void setZoom(double zoom) {
+        this.zoom = Math.max(0.15, Math.min(zoom, 8.0));
+    }
+
+    public Vec2 worldToScreen(Vec2 world) {
+        return worldToScreen(world.x, world.y);
+    }
+
+    public Vec2 worldToScreen(double wx, double wy) {
+        
+        double sx = (wx - centerWorld.x) * zoom + viewportW / 2.0;
+        double sy = (wy - centerWorld.y) * zoom + viewportH / 2.0;
+        return new Vec2(sx, sy);
+    }
+
+    // Allocation-free forms of worldToScreen for per-point loops.
+    public double worldToScreenX(double wx) {
+        return (wx - centerWorld.x) * zoom + viewportW / 2.0;
+    }
+
+    public double worldToScreenY(double wy) {
+        return (wy - centerWorld.y) * zoom + viewportH / 2.0;
+    }
+
+    public Vec2 screenToWorld(double sx, double sy) {
+        
+        double wx = (sx - viewportW / 2.0) / zoom + centerWorld.x;
+        double wy = (sy - viewportH / 2.0) / zoom + centerWorld.y;
+        return new Vec2(wx, wy);
+    }
+
+    // World-space rectangle currently on screen.
+    public double visibleMinX() {
+        return centerWorld.x - viewportW / (2.0 * zoom);
+    }
+
+    public double visibleMinY() {
+        return centerWorld.y - viewportH / (2.0 * zoom);
+    }
+
+    public double visibleMaxX() {
+        return centerWorld.x + viewportW / (2.0 * zoom);
+    }
+
+    public double visibleMaxY() {
+        return centerWorld.y + viewportH / (2.0 * zoom);
+    }
+
+    // True if a circle of the given world radius around (wx, wy) reaches into the viewport.
+    public boolean isVisible(double wx, double wy, double worldRadius) {
+        return wx + worldRadius >= visibleMinX() && wx - worldRadius <= visibleMaxX()
+                && wy + worldRadius >= visibleMinY() && wy - worldRadius <= visibleMaxY();
+    }
+
+    // True if the world-space box overlaps the viewport.
+    public boolean isVisible(double minX, double minY, double maxX, double maxY) {
+        return maxX >= visibleMinX() && minX <= visibleMaxX()
+                && maxY >= visibleMinY() && minY <= visibleMaxY();
+    }
+
+    public double worldToScreenScalar(double worldValue) {
+        return worldValue * zoom;
+    }
+
+    public double worldToScreenLength(double worldLength) {
+        return worldLength * zoom;
+    }
+}
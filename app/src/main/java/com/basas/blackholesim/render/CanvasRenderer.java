@@ -0,0 +1,251 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.RenderSnapshot;
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Argb;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+public class CanvasRenderer {
+
+    // How far the horizon labels reach from a hole's centre, in pixels, for culling.
+    private static final double LABEL_REACH = 120.0;
+
+    private final Camera camera;
+
+    private RenderSnapshot snap;
+
+    // Particle colors arrive as packed ARGB; burst hues are few enough to keep their Color objects.
+    private final Map<Integer, Color> colorCache = new HashMap<>();
+
+    private final AccretionDiskCache diskCache = new AccretionDiskCache();
+    private final TrailBatch trails = new TrailBatch();
+    private final DensitySplat splat = new DensitySplat();
+
+    // Shared by the parallel parts of a frame (grid mesh, pixel-buffer particles); the FX thread waits for them.
+    private final ParticleExecutor executor = new ParticleExecutor(Runtime.getRuntime().availableProcessors());
+    private final GridMesh gridMesh = new GridMesh(executor);
+    // Created on first use of the pixel-buffer particle mode.
+    private ParticleRasterizer rasterizer;
+
+    private boolean drawTrails = true;
+    private boolean drawGridDistortion = true;
+    private boolean drawVelocityVectors = false;
+    private boolean pixelParticles = false;
+
+    
+    private double gridStep = 46.0;
+    private double gridStrength = 1800;
+
+    
+    private Vec2 mouseScreen = new Vec2(0, 0);
+    private boolean mouseValid = false;
+
+    public CanvasRenderer(Camera camera) {
+        this.camera = camera;
+    }
+
+    public void setDrawTrails(boolean drawTrails) { this.drawTrails = drawTrails; }
+    public void setDrawGridDistortion(boolean drawGridDistortion) { this.drawGridDistortion = drawGridDistortion; }
+    public void setDrawVelocityVectors(boolean drawVelocityVectors) { this.drawVelocityVectors = drawVelocityVectors; }
+    public void setPixelParticles(boolean pixelParticles) { this.pixelParticles = pixelParticles; }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public void setMouse(double sx, double sy, boolean valid) {
+        this.mouseScreen.set(sx, sy);
+        this.mouseValid = valid;
+    }
+
+    public void render(GraphicsContext g, RenderSnapshot snapshot, double w, double h) {
+        this.snap = snapshot;
+        camera.setViewport(w, h);
+
+        
+        g.setFill(Color.rgb(10, 12, 24));
+        g.fillRect(0, 0, w, h);
+
+        
+        g.setFill(Color.rgb(255, 255, 255, 0.02));
+        g.fillOval(-w * 0.25, -h * 0.1, w * 1.5, h * 1.2);
+
+        if (drawGridDistortion) drawDistortedGrid(g);
+
+        
+        PhysicsParams params = snapshot.params;
+        for (int j = 0; j < snapshot.blackHoles.size(); j++) {
+            BlackHole bh = snapshot.blackHoles.get(j);
+            if (params.enableAccretionDisk && params.relativityMode != RelativityMode.NEWTONIAN) {
+                diskCache.draw(g, camera, bh, params);
+            }
+            drawBlackHole(g, bh, snapshot.horizonRadius[j]);
+        }
+        diskCache.endFrame();
+
+        
+        int n = snapshot.particleCount;
+
+        if (drawTrails) {
+            trails.draw(g, snapshot, camera);
+        }
+
+        
+        if (pixelParticles) {
+            if (rasterizer == null) rasterizer = new ParticleRasterizer(executor);
+            rasterizer.draw(g, snapshot, camera, w, h);
+            if (drawVelocityVectors) {
+                for (int i = 0; i < n; i++) {
+                    if (velocityVisible(snapshot, i)) drawVelocity(g, snapshot, i);
+                }
+            }
+        } else {
+            drawParticles(g, snapshot, w, h);
+        }
+
+        drawHud(g, w, h);
+    }
+
+    private void drawBlackHole(GraphicsContext g, BlackHole bh, double rWorld) {
+        Vec2 c = camera.worldToScreen(bh.getPosition());
+        double r = Math.max(2.0, camera.worldToScreenScalar(rWorld));
+        double reach = Math.max(r * 2.4, r + LABEL_REACH);
+        if (c.x + reach < 0 || c.y + reach < 0 || c.x - reach > camera.getViewportWidth()
+                || c.y - reach > camera.getViewportHeight()) return;
+
+        
+        g.setFill(Color.rgb(120, 170, 255, 0.10));
+        g.fillOval(c.x - r * 2.4, c.y - r * 2.4, r * 4.8, r * 4.8);
+
+        
+        g.setStroke(Color.rgb(170, 210, 255, 0.75));
+        g.setLineWidth(Math.max(1.0, 1.5 * camera.getZoom()));
+        g.strokeOval(c.x - r, c.y - r, r * 2, r * 2);
+
+        
+        g.setFill(Color.rgb(0, 0, 0, 0.96));
+        g.fillOval(c.x - r * 0.86, c.y - r * 0.86, r * 1.72, r * 1.72);
+
+        
+        g.setFont(Font.font(12));
+        g.setTextAlign(TextAlignment.CENTER);
+
+        g.setFill(Color.rgb(232, 234, 246, 0.70));
+        g.fillText("Event Horizon (r≈" + String.format("%.2f", rWorld) + ")", c.x, c.y - r - 10);
+
+        g.setFill(Color.rgb(232, 234, 246, 0.85));
+        g.fillText(bh.getId(), c.x, c.y + r + 16);
+    }
+
+    // Off-screen particles are skipped; sub-pixel ones go to the density splat, drawn after the rest.
+    private void drawParticles(GraphicsContext g, RenderSnapshot ps, double w, double h) {
+        double minX = camera.visibleMinX();
+        double minY = camera.visibleMinY();
+        double maxX = camera.visibleMaxX();
+        double maxY = camera.visibleMaxY();
+        // Drawn radius is at least one pixel.
+        double minRadius = 1.0 / camera.getZoom();
+
+        splat.begin(w, h);
+        for (int i = 0; i < ps.particleCount; i++) {
+            double x = ps.x[i];
+            double y = ps.y[i];
+            double r = Math.max(minRadius, ps.radius[i]);
+            if (x + r < minX || x - r > maxX || y + r < minY || y - r > maxY) {
+                if (drawVelocityVectors && velocityVisible(ps, i)) drawVelocity(g, ps, i);
+                continue;
+            }
+            if (r == minRadius) {
+                splat.add(camera.worldToScreenX(x), camera.worldToScreenY(y), ps.color[i]);
+            } else {
+                drawParticle(g, ps, i);
+            }
+            if (drawVelocityVectors) drawVelocity(g, ps, i);
+        }
+        splat.draw(g);
+    }
+
+    private void drawParticle(GraphicsContext g, RenderSnapshot ps, int i) {
+        Vec2 s = camera.worldToScreen(ps.x[i], ps.y[i]);
+        double r = Math.max(1.0, camera.worldToScreenScalar(ps.radius[i]));
+
+        g.setFill(toColor(ps.color[i]));
+        g.fillOval(s.x - r, s.y - r, r * 2, r * 2);
+    }
+
+    // Package-private so the benchmarks module can time it without a toolkit.
+    Color toColor(int argb) {
+        Color c = colorCache.get(argb);
+        if (c == null) {
+            if (colorCache.size() > 4096) colorCache.clear();
+            c = Color.rgb(Argb.red(argb), Argb.green(argb), Argb.blue(argb), Argb.opacity(argb));
+            colorCache.put(argb, c);
+        }
+        return c;
+    }
+
+    // The arrow is 0.08 * v long in world units, so it can reach into view from an off-screen particle.
+    private boolean velocityVisible(RenderSnapshot ps, int i) {
+        double reach = 0.08 * Math.hypot(ps.vx[i], ps.vy[i]);
+        return camera.isVisible(ps.x[i], ps.y[i], reach);
+    }
+
+    private void drawVelocity(GraphicsContext g, RenderSnapshot ps, int i) {
+        Vec2 s = camera.worldToScreen(ps.x[i], ps.y[i]);
+
+        
+        double scale = 0.08 * camera.getZoom();
+        double vx = ps.vx[i] * scale;
+        double vy = ps.vy[i] * scale;
+
+        g.setStroke(Color.rgb(255, 255, 255, 0.35));
+        g.setLineWidth(Math.max(1.0, 1.1 * camera.getZoom()));
+        g.strokeLine(s.x, s.y, s.x + vx, s.y + vy);
+    }
+
+    private void drawHud(GraphicsContext g, double w, double h) {
+        g.setFont(Font.font(12));
+        g.setTextAlign(TextAlignment.LEFT);
+
+        int particles = snap.particleCount;
+        int holes = snap.blackHoles.size();
+
+        g.setFill(Color.rgb(232, 234, 246, 0.85));
+        g.fillText("Particles: " + particles + "   Black holes: " + holes + "   Absorbed: " + snap.totalKillCount, 14, 18);
+
+        g.setFill(Color.rgb(232, 234, 246, 0.70));
+        String model = snap.gravityModel != null ? snap.gravityModel.name() : "";
+        g.fillText("Model: " + model + "   Integrator: " + snap.integratorName, 14, 36);
+
+        double drift = snap.energyDrift * 100.0;
+        g.setFill(Color.rgb(232, 234, 246, 0.60));
+        g.fillText(String.format("Energy drift: %+,.4f%%   (Click: spawn • Shift+Drag BH • RMB/MMB pan • Wheel zoom)", drift), 14, 54);
+
+        if (mouseValid) {
+            Vec2 world = camera.screenToWorld(mouseScreen.x, mouseScreen.y);
+            double gMag = snap.gravitationalFieldAt(world);
+            double vEsc = snap.escapeVelocityAt(world);
+
+            g.setFill(Color.rgb(232, 234, 246, 0.75));
+            g.fillText(String.format("At cursor: |g|=%.3f   v_esc≈%.2f", gMag, vEsc), 14, 72);
+        }
+    }
+
+    private void drawDistortedGrid(GraphicsContext g) {
+        g.setLineWidth(1.0);
+        g.setStroke(Color.rgb(120, 140, 190, 0.15));
+        gridMesh.setStrength(gridStrength);
+        gridMesh.draw(g, camera, snap.blackHoles, gridStep);
+    }
+}
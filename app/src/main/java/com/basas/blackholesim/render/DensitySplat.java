@@ -0,0 +1,68 @@
+package com.basas.blackholesim.render;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+
+/*
+ * Particles smaller than a pixel on screen, merged into one density image.
+ * fillOval draws each of them as the same 2 px dot anyway, so instead every
+ * particle adds its premultiplied colour to the CELL x CELL pixel cell it
+ * falls in; the cells are packed into a small image that is drawn scaled over
+ * the viewport. A zoomed-out cloud then costs one drawImage instead of a
+ * fillOval per particle, and dense regions get brighter instead of piling up
+ * identical dots.
+ */
+final class DensitySplat {
+
+    static final int CELL = 2;
+
+    private int cols = 0;
+    private int rows = 0;
+    // Premultiplied A, R, G, B sums per cell, interleaved.
+    private int[] acc = new int[0];
+    private int[] pixels = new int[0];
+    private WritableImage image;
+    private int count = 0;
+
+    void begin(double w, double h) {
+        int c = Math.max(1, (int) Math.ceil(w / CELL));
+        int r = Math.max(1, (int) Math.ceil(h / CELL));
+        if (c != cols || r != rows) {
+            cols = c;
+            rows = r;
+            acc = new int[4 * c * r];
+            pixels = new int[c * r];
+            image = new WritableImage(c, r);
+        }
+        count = 0;
+    }
+
+    void add(double sx, double sy, int argb) {
+        int cx = (int) Math.floor(sx / CELL);
+        int cy = (int) Math.floor(sy / CELL);
+        if (cx < 0 || cy < 0 || cx >= cols || cy >= rows) return;
+        int a = argb >>> 24;
+        int q = (cy * cols + cx) << 2;
+        acc[q] += a;
+        acc[q + 1] += ((argb >> 16) & 0xFF) * a / 255;
+        acc[q + 2] += ((argb >> 8) & 0xFF) * a / 255;
+        acc[q + 3] += (argb & 0xFF) * a / 255;
+        count++;
+    }
+
+    // Draws the cells added since begin and clears them.
+    void draw(GraphicsContext g) {
+        if (count == 0) return;
+        for (int p = 0, q = 0; p < pixels.length; p++, q += 4) {
+            int a = acc[q];
+            pixels[p] = a == 0 ? 0 : (Math.min(255, a) << 24) | (Math.min(255, acc[q + 1]) << 16)
+                    | (Math.min(255, acc[q + 2]) << 8) | Math.min(255, acc[q + 3]);
+        }
+        Arrays.fill(acc, 0);
+        image.getPixelWriter().setPixels(0, 0, cols, rows, PixelFormat.getIntArgbPreInstance(), pixels, 0, cols);
+        g.drawImage(image, 0, 0, cols * CELL, rows * CELL);
+    }
+}
@@ -0,0 +1,174 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.entities.BlackHole;
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * The distorted background grid as a cached mesh. Grid lines sit on a world
+ * lattice whose step is the power of two nearest to the wanted screen step,
+ * so the density follows the zoom. Each lattice vertex (half a step apart,
+ * shared by its row and column line) is pulled towards the holes by
+ *
+ *   strength * m / (d^2 + 50)
+ *
+ * once, in parallel, and kept in world space. The cache covers the visible
+ * lattice plus a margin and is only recomputed when the holes move or change
+ * mass, the step changes, or the view leaves it; panning, zooming within a
+ * step and paused frames only transform the cached vertices to the screen.
+ */
+final class GridMesh {
+
+    private final ParticleExecutor executor;
+
+    private double strength = 1800;
+
+    // Lattice window: vertex (c, r) is the lattice point (col0 + c, row0 + r) * spacing.
+    private double spacing = Double.NaN;
+    private long col0, row0;
+    private int cols = 0, rows = 0;
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+
+    // x, y and mass of every hole the window was computed for.
+    private double[] holeKey = new double[0];
+    private int holeCount = -1;
+
+    GridMesh(ParticleExecutor executor) {
+        this.executor = executor;
+    }
+
+    void setStrength(double strength) {
+        if (strength != this.strength) {
+            this.strength = strength;
+            spacing = Double.NaN;
+        }
+    }
+
+    void draw(GraphicsContext g, Camera camera, List<BlackHole> holes, double screenStep) {
+        double zoom = camera.getZoom();
+        double step = Math.scalb(1.0, (int) Math.round(Math.log(screenStep / zoom) / Math.log(2.0)));
+        double half = step * 0.5;
+
+        // One vertex beyond the edges, and even (= on a grid line) at the low end.
+        long c0 = Math.floorDiv((long) Math.floor(camera.visibleMinX() / half) - 1, 2) * 2;
+        long r0 = Math.floorDiv((long) Math.floor(camera.visibleMinY() / half) - 1, 2) * 2;
+        long c1 = (long) Math.ceil(camera.visibleMaxX() / half) + 1;
+        long r1 = (long) Math.ceil(camera.visibleMaxY() / half) + 1;
+
+        update(holes, half, c0, r0, c1, r1);
+
+        g.beginPath();
+        for (long r = r0; r <= r1; r += 2) {
+            int base = (int) (r - row0) * cols;
+            for (long c = c0; c <= c1; c++) {
+                int v = base + (int) (c - col0);
+                double sx = camera.worldToScreenX(vx[v]);
+                double sy = camera.worldToScreenY(vy[v]);
+                if (c == c0) g.moveTo(sx, sy); else g.lineTo(sx, sy);
+            }
+        }
+        for (long c = c0; c <= c1; c += 2) {
+            int col = (int) (c - col0);
+            for (long r = r0; r <= r1; r++) {
+                int v = (int) (r - row0) * cols + col;
+                double sx = camera.worldToScreenX(vx[v]);
+                double sy = camera.worldToScreenY(vy[v]);
+                if (r == r0) g.moveTo(sx, sy); else g.lineTo(sx, sy);
+            }
+        }
+        g.stroke();
+    }
+
+    // Makes the window cover lattice columns c0..c1 and rows r0..r1 for these holes and this spacing.
+    void update(List<BlackHole> holes, double half, long c0, long r0, long c1, long r1) {
+        boolean covered = half == spacing && c0 >= col0 && r0 >= row0
+                && c1 < col0 + cols && r1 < row0 + rows;
+        boolean same = sameHoles(holes);
+        if (covered && same) return;
+
+        // With static holes, a margin of half the visible size on every side keeps panning inside the
+        // window for a while; moving holes invalidate it every frame anyway, so they get none.
+        long padC = same ? (c1 - c0) / 2 + 2 : 0;
+        long padR = same ? (r1 - r0) / 2 + 2 : 0;
+        spacing = half;
+        col0 = Math.floorDiv(c0 - padC, 2) * 2;
+        row0 = Math.floorDiv(r0 - padR, 2) * 2;
+        cols = (int) (c1 + padC - col0 + 1);
+        rows = (int) (r1 + padR - row0 + 1);
+        if (vx.length < cols * rows) {
+            vx = new double[cols * rows];
+            vy = new double[cols * rows];
+        }
+        rememberHoles(holes);
+        build(holes);
+    }
+
+    private void build(List<BlackHole> holes) {
+        int n = holes.size();
+        double[] hx = new double[n];
+        double[] hy = new double[n];
+        double[] hs = new double[n];
+        for (int j = 0; j < n; j++) {
+            BlackHole bh = holes.get(j);
+            hx[j] = bh.getPosition().x;
+            hy[j] = bh.getPosition().y;
+            hs[j] = strength * bh.getMass();
+        }
+
+        double h = spacing;
+        double x0 = col0 * h;
+        double y0 = row0 * h;
+        int width = cols;
+        double[] outX = vx;
+        double[] outY = vy;
+        executor.forSlices(rows, executor.getThreadCount(), (slice, from, to) -> {
+            for (int r = from; r < to; r++) {
+                double wy = y0 + r * h;
+                int base = r * width;
+                for (int c = 0; c < width; c++) {
+                    double wx = x0 + c * h;
+                    double dx = 0.0;
+                    double dy = 0.0;
+                    for (int j = 0; j < n; j++) {
+                        double ex = hx[j] - wx;
+                        double ey = hy[j] - wy;
+                        double d2 = ex * ex + ey * ey;
+                        if (d2 == 0.0) continue;
+                        double f = hs[j] / ((d2 + 50.0) * Math.sqrt(d2));
+                        dx += ex * f;
+                        dy += ey * f;
+                    }
+                    outX[base + c] = wx + dx;
+                    outY[base + c] = wy + dy;
+                }
+            }
+        });
+    }
+
+    private boolean sameHoles(List<BlackHole> holes) {
+        int n = holes.size();
+        if (n != holeCount) return false;
+        for (int j = 0; j < n; j++) {
+            BlackHole bh = holes.get(j);
+            if (holeKey[3 * j] != bh.getPosition().x || holeKey[3 * j + 1] != bh.getPosition().y
+                    || holeKey[3 * j + 2] != bh.getMass()) return false;
+        }
+        return true;
+    }
+
+    private void rememberHoles(List<BlackHole> holes) {
+        int n = holes.size();
+        if (holeKey.length < 3 * n) holeKey = Arrays.copyOf(holeKey, 3 * n);
+        for (int j = 0; j < n; j++) {
+            BlackHole bh = holes.get(j);
+            holeKey[3 * j] = bh.getPosition().x;
+            holeKey[3 * j + 1] = bh.getPosition().y;
+            holeKey[3 * j + 2] = bh.getMass();
+        }
+        holeCount = n;
+    }
+}
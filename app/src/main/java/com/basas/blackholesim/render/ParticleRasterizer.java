@@ -0,0 +1,245 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.RenderSnapshot;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/*
+ * Particles splatted straight into an ARGB framebuffer instead of one fillOval
+ * each. Colours add up (premultiplied, clamped at 255), so dense regions of a
+ * burst glow instead of hiding each other.
+ *
+ * The screen is cut into bands of BAND_ROWS rows. A parallel pass bins the
+ * particles by band (count, prefix sum, scatter), then bands are splatted in
+ * parallel in three rounds, b mod 3 = 0, 1, 2: a particle writes at most one
+ * band above or below its own, so bands of the same round never touch the
+ * same rows and the accumulators need no atomics. A last parallel pass packs
+ * the accumulators into the framebuffer and clears them for the next frame.
+ *
+ * The framebuffer backs a PixelBuffer, so the image is drawn without copying;
+ * once shown, it is only written inside PixelBuffer.updateBuffer.
+ */
+final class ParticleRasterizer {
+
+    static final int BAND_ROWS = 16;
+    // Splat radius cap in pixels, so a particle never reaches past the next band.
+    private static final int MAX_RADIUS = BAND_ROWS;
+
+    // Disc stamps per quarter-pixel radius: half-width in whole pixels of each row, for rows -R..R.
+    private static final int STAMP_STEPS = 4;
+    private static final int[][] STAMPS = new int[MAX_RADIUS * STAMP_STEPS + 1][];
+
+    static {
+        for (int q = 0; q < STAMPS.length; q++) {
+            double r = (double) q / STAMP_STEPS;
+            int rows = (int) Math.floor(r);
+            int[] half = new int[2 * rows + 1];
+            for (int dy = -rows; dy <= rows; dy++) {
+                half[dy + rows] = (int) Math.floor(Math.sqrt(r * r - dy * dy));
+            }
+            STAMPS[q] = half;
+        }
+    }
+
+    private final ParticleExecutor executor;
+    private final int slices;
+
+    private int width = 0;
+    private int height = 0;
+    private int bands = 0;
+
+    private int[] pixels = new int[0];
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage image;
+
+    // Premultiplied A, R, G, B sums per pixel, interleaved, in 0..255 units per particle.
+    private int[] acc = new int[0];
+
+    private int[] band = new int[0];
+    // Screen position, splat radius and colour of the visible particles, grouped by band.
+    private float[] binX = new float[0];
+    private float[] binY = new float[0];
+    private float[] binR = new float[0];
+    private int[] binColor = new int[0];
+    // Per slice and band: particle count, then write cursor into the bins.
+    private int[] cursor = new int[0];
+    private int[] bandStart = new int[0];
+
+    ParticleRasterizer(ParticleExecutor executor) {
+        this.executor = executor;
+        slices = executor.getThreadCount() * 4;
+    }
+
+    void draw(GraphicsContext g, RenderSnapshot snapshot, Camera camera, double w, double h) {
+        int wi = Math.max(1, (int) Math.ceil(w));
+        int hi = Math.max(1, (int) Math.ceil(h));
+        if (wi != width || hi != height || image == null) {
+            rasterize(snapshot, camera, wi, hi);
+            pixelBuffer = new PixelBuffer<>(wi, hi, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+            image = new WritableImage(pixelBuffer);
+        } else {
+            // The render thread may still be uploading the last frame; JavaFX only lets a shared
+            // PixelBuffer be written inside updateBuffer.
+            pixelBuffer.updateBuffer(b -> {
+                rasterize(snapshot, camera, wi, hi);
+                return null;
+            });
+        }
+        g.drawImage(image, 0, 0);
+    }
+
+    // Fills pixels (width x height, premultiplied ARGB) with the particles of the snapshot.
+    int[] rasterize(RenderSnapshot s, Camera camera, int w, int h) {
+        resize(w, h);
+        int n = s.particleCount;
+        if (band.length < n) {
+            int cap = s.x.length;
+            band = new int[cap];
+            binX = new float[cap];
+            binY = new float[cap];
+            binR = new float[cap];
+            binColor = new int[cap];
+        }
+
+        double zoom = camera.getZoom();
+        double[] x = s.x;
+        double[] y = s.y;
+
+        // Count particles per slice and band; -1 for particles entirely off screen.
+        Arrays.fill(cursor, 0, slices * bands, 0);
+        executor.forSlices(n, slices, (slice, from, to) -> {
+            int base = slice * bands;
+            for (int i = from; i < to; i++) {
+                double sx = camera.worldToScreenX(x[i]);
+                double sy = camera.worldToScreenY(y[i]);
+                double r = Math.min(MAX_RADIUS, Math.max(0.5, s.radius[i] * zoom));
+                if (sx + r < 0 || sy + r < 0 || sx - r >= width || sy - r >= height) {
+                    band[i] = -1;
+                    continue;
+                }
+                int b = Math.max(0, Math.min(bands - 1, (int) sy / BAND_ROWS));
+                band[i] = b;
+                cursor[base + b]++;
+            }
+        });
+
+        // Band-major prefix sum, so each band's particles are contiguous in the bins.
+        int total = 0;
+        for (int b = 0; b < bands; b++) {
+            bandStart[b] = total;
+            for (int k = 0; k < slices; k++) {
+                int c = cursor[k * bands + b];
+                cursor[k * bands + b] = total;
+                total += c;
+            }
+        }
+        bandStart[bands] = total;
+
+        executor.forSlices(n, slices, (slice, from, to) -> {
+            int base = slice * bands;
+            for (int i = from; i < to; i++) {
+                int b = band[i];
+                if (b < 0) continue;
+                int k = cursor[base + b]++;
+                binX[k] = (float) camera.worldToScreenX(x[i]);
+                binY[k] = (float) camera.worldToScreenY(y[i]);
+                binR[k] = (float) Math.min(MAX_RADIUS, s.radius[i] * zoom);
+                binColor[k] = s.color[i];
+            }
+        });
+
+        for (int round = 0; round < 3; round++) {
+            int first = round;
+            int count = (bands - first + 2) / 3;
+            executor.forSlices(count, count, (k, from, to) -> {
+                for (int j = from; j < to; j++) splatBand(first + 3 * j);
+            });
+        }
+
+        executor.forSlices(bands, bands, (k, from, to) -> {
+            for (int b = from; b < to; b++) resolveBand(b);
+        });
+        return pixels;
+    }
+
+    private void resize(int w, int h) {
+        if (w == width && h == height) return;
+        width = w;
+        height = h;
+        bands = (h + BAND_ROWS - 1) / BAND_ROWS;
+        int size = w * h;
+        pixels = new int[size];
+        acc = new int[4 * size];
+        cursor = new int[slices * bands];
+        bandStart = new int[bands + 1];
+    }
+
+    private void splatBand(int b) {
+        int w = width;
+        int h = height;
+        int[] acc = this.acc;
+        for (int k = bandStart[b]; k < bandStart[b + 1]; k++) {
+            int argb = binColor[k];
+            int a = argb >>> 24;
+            if (a == 0) continue;
+            int cr = ((argb >> 16) & 0xFF) * a / 255;
+            int cg = ((argb >> 8) & 0xFF) * a / 255;
+            int cb = (argb & 0xFF) * a / 255;
+
+            int px = (int) Math.floor(binX[k]);
+            int py = (int) Math.floor(binY[k]);
+            int[] stamp = STAMPS[Math.round(binR[k] * STAMP_STEPS)];
+            int rows = stamp.length >> 1;
+
+            if (rows == 0) {
+                if (px < 0 || py < 0 || px >= w || py >= h) continue;
+                int p = (py * w + px) << 2;
+                acc[p] += a;
+                acc[p + 1] += cr;
+                acc[p + 2] += cg;
+                acc[p + 3] += cb;
+                continue;
+            }
+
+            int y0 = Math.max(0, py - rows);
+            int y1 = Math.min(h - 1, py + rows);
+            for (int y = y0; y <= y1; y++) {
+                int half = stamp[y - py + rows];
+                int x0 = Math.max(0, px - half);
+                int x1 = Math.min(w - 1, px + half);
+                for (int p = (y * w + x0) << 2, end = (y * w + x1) << 2; p <= end; p += 4) {
+                    acc[p] += a;
+                    acc[p + 1] += cr;
+                    acc[p + 2] += cg;
+                    acc[p + 3] += cb;
+                }
+            }
+        }
+    }
+
+    private void resolveBand(int b) {
+        int from = b * BAND_ROWS * width;
+        int to = Math.min(height, (b + 1) * BAND_ROWS) * width;
+        int[] acc = this.acc;
+        for (int p = from; p < to; p++) {
+            int q = p << 2;
+            int a = acc[q];
+            if (a == 0) {
+                pixels[p] = 0;
+                continue;
+            }
+            pixels[p] = (Math.min(255, a) << 24) | (Math.min(255, acc[q + 1]) << 16)
+                    | (Math.min(255, acc[q + 2]) << 8) | Math.min(255, acc[q + 3]);
+            acc[q] = 0;
+            acc[q + 1] = 0;
+            acc[q + 2] = 0;
+            acc[q + 3] = 0;
+        }
+    }
+}
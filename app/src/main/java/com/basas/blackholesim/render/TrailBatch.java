@@ -0,0 +1,105 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.RenderSnapshot;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/*
+ * All particle trails of a snapshot as a few batched paths. Trail points are
+ * transformed to screen space once into reusable arrays, and segments are
+ * grouped into BUCKETS fade levels. The fade only grows along a trail, so
+ * each trail contributes one contiguous run per bucket, and a bucket is one
+ * path (moveTo per run, lineTo per point) stroked with a single colour:
+ * BUCKETS stroke calls per frame instead of one per segment. Trails entirely
+ * outside the viewport are skipped before any of that.
+ */
+final class TrailBatch {
+
+    static final int BUCKETS = 8;
+    private static final Color[] COLORS = new Color[BUCKETS];
+
+    static {
+        for (int b = 0; b < BUCKETS; b++) {
+            COLORS[b] = Color.rgb(200, 210, 255, 0.25 * (b + 0.5) / BUCKETS);
+        }
+    }
+
+    private double[] sx = new double[0];
+    private double[] sy = new double[0];
+    // Per trail: first segment not yet emitted by an earlier bucket.
+    private int[] cursor = new int[0];
+
+    void draw(GraphicsContext g, RenderSnapshot s, Camera camera) {
+        int trails = s.particleCount;
+        int points = trails > 0 ? s.trailStart[trails - 1] + s.trailLength[trails - 1] : 0;
+        if (points == 0) return;
+
+        if (sx.length < points) {
+            sx = new double[s.trailX.length];
+            sy = new double[s.trailX.length];
+        }
+        if (cursor.length < trails) cursor = new int[s.trailStart.length];
+
+        // Trails whose bounding box misses the viewport start with their cursor at the end and are
+        // neither transformed nor emitted.
+        float[] tx = s.trailX;
+        float[] ty = s.trailY;
+        double minX = camera.visibleMinX();
+        double minY = camera.visibleMinY();
+        double maxX = camera.visibleMaxX();
+        double maxY = camera.visibleMaxY();
+        for (int p = 0; p < trails; p++) {
+            int start = s.trailStart[p];
+            int end = start + s.trailLength[p];
+            float x0 = Float.POSITIVE_INFINITY, y0 = Float.POSITIVE_INFINITY;
+            float x1 = Float.NEGATIVE_INFINITY, y1 = Float.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                x0 = Math.min(x0, tx[i]);
+                x1 = Math.max(x1, tx[i]);
+                y0 = Math.min(y0, ty[i]);
+                y1 = Math.max(y1, ty[i]);
+            }
+            if (x1 < minX || x0 > maxX || y1 < minY || y0 > maxY) {
+                cursor[p] = s.trailLength[p];
+                continue;
+            }
+            for (int i = start; i < end; i++) {
+                sx[i] = camera.worldToScreenX(tx[i]);
+                sy[i] = camera.worldToScreenY(ty[i]);
+            }
+            cursor[p] = 1;
+        }
+
+        g.setLineWidth(Math.max(1.0, 1.0 * camera.getZoom()));
+        for (int b = 0; b < BUCKETS; b++) {
+            g.beginPath();
+            boolean any = false;
+            for (int p = 0; p < trails; p++) {
+                int n = s.trailLength[p];
+                int first = cursor[p];
+                if (first >= n) continue;
+                int end = first;
+                while (end < n && bucket(end, n) == b) end++;
+                if (end == first) continue;
+
+                int start = s.trailStart[p];
+                g.moveTo(sx[start + first - 1], sy[start + first - 1]);
+                for (int i = first; i < end; i++) {
+                    g.lineTo(sx[start + i], sy[start + i]);
+                }
+                cursor[p] = end;
+                any = true;
+            }
+            if (any) {
+                g.setStroke(COLORS[b]);
+                g.stroke();
+            }
+        }
+    }
+
+    // Fade of segment i (from point i - 1 to i) of an n-point trail, oldest faintest.
+    static int bucket(int i, int n) {
+        double alpha = Math.max(0.05, (double) i / (double) n);
+        return Math.min(BUCKETS - 1, (int) (alpha * BUCKETS));
+    }
+}
@@ -1,13 +1,18 @@
 package com.basas.blackholesim.ui;
 
+import com.basas.blackholesim.core.RenderSnapshot;
+import com.basas.blackholesim.core.Scenarios;
 import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.SimulationLoop;
 import com.basas.blackholesim.core.entities.BlackHole;
 import com.basas.blackholesim.core.entities.Particle;
+import com.basas.blackholesim.core.math.Argb;
 import com.basas.blackholesim.core.math.Vec2;
 import com.basas.blackholesim.core.physics.*;
 import com.basas.blackholesim.render.Camera;
 import com.basas.blackholesim.render.CanvasRenderer;
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -18,9 +23,9 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 
 import java.util.Locale;
+import java.util.function.Consumer;
 
 
 public class MainView {
@@ -29,8 +34,9 @@ public class MainView {
 
     private final Canvas canvas = new Canvas(860, 720);
     private final SimulationEngine engine = new SimulationEngine();
+    private final SimulationLoop loop = new SimulationLoop(engine);
     private final Camera camera = new Camera();
-    private final CanvasRenderer renderer = new CanvasRenderer(engine, camera);
+    private final CanvasRenderer renderer = new CanvasRenderer(camera);
 
     private final UiState ui = new UiState();
 
@@ -42,7 +48,10 @@ public class MainView {
     private double lastMouseY;
 
     
-    private BlackHole draggingBlackHole = null;
+    private String draggingBlackHoleId = null;
+
+    private RenderSnapshot snapshot;
+    private long shownBlackHoleSetVersion = -1;
 
     
     private ComboBox<String> bhSelect;
@@ -52,11 +61,16 @@ public class MainView {
     private final RungeKutta4Integrator rk4 = new RungeKutta4Integrator();
     private final DormandPrince45Integrator rk45 = new DormandPrince45Integrator();
     private final VelocityVerletIntegrator verlet = new VelocityVerletIntegrator();
+    private final YoshidaIntegrator yoshida4 = new YoshidaIntegrator(4);
+    private final YoshidaIntegrator yoshida6 = new YoshidaIntegrator(6);
+    private final BlockTimestepIntegrator block = new BlockTimestepIntegrator();
     private final RelativisticGeodesicIntegrator geodesic = new RelativisticGeodesicIntegrator();
 
     public MainView() {
         Locale.setDefault(Locale.US);
 
+        snapshot = loop.acquireSnapshot();
+
         buildLayout();
         setupSimulationDefaults();
         setupInputs();
@@ -65,7 +79,16 @@ public class MainView {
 
     public Parent getRoot() { return root; }
 
-    public void start() { timer.start(); }
+    public void start() {
+        loop.start();
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        loop.stop();
+        renderer.shutdown();
+    }
 
     private void buildLayout() {
         StackPane center = new StackPane(canvas);
@@ -106,7 +129,7 @@ public class MainView {
         resetView.setOnAction(e -> resetCamera());
 
         Button resetPreset = new Button("Reset preset");
-        resetPreset.setOnAction(e -> applyPreset("Accretion disk"));
+        resetPreset.setOnAction(e -> applyPreset(Scenarios.ACCRETION_DISK));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -133,35 +156,43 @@ public class MainView {
         
         Label presetLabel = new Label("Preset");
         ComboBox<String> presets = new ComboBox<>();
-        presets.getItems().addAll("Accretion disk", "Stable orbit", "Binary system", "Slingshot");
-        presets.getSelectionModel().select("Accretion disk");
+        presets.getItems().addAll(Scenarios.presets());
+        presets.getSelectionModel().select(Scenarios.ACCRETION_DISK);
         presets.setMaxWidth(Double.MAX_VALUE);
         presets.setOnAction(e -> applyPreset(presets.getValue()));
 
         
         Label modelLabel = new Label("Gravity model");
         ComboBox<String> model = new ComboBox<>();
-        model.getItems().addAll("Paczynski–Wiita (pseudo-GR)", "Newtonian");
+        String gridHoles = "force grid, " + ForceGridGravityModel.defaultMinBlackHoles(new PhysicsParams()) + "+ static holes";
+        model.getItems().addAll("Paczynski–Wiita (pseudo-GR)", "Newtonian",
+                "Paczynski–Wiita (" + gridHoles + ")", "Newtonian (" + gridHoles + ")");
         model.getSelectionModel().select(0);
         model.setMaxWidth(Double.MAX_VALUE);
         model.setOnAction(e -> {
             String v = model.getValue();
-            if (v.startsWith("Newtonian")) engine.setGravityModel(new NewtonianGravityModel());
-            else engine.setGravityModel(new PaczynskiWiitaGravityModel());
+            GravityModel base = v.startsWith("Newtonian") ? new NewtonianGravityModel() : new PaczynskiWiitaGravityModel();
+            GravityModel gm = v.contains("force grid") ? new ForceGridGravityModel(base) : base;
+            submit(en -> en.setGravityModel(gm));
         });
 
         
         Label integLabel = new Label("Integrator");
         ComboBox<String> integ = new ComboBox<>();
-        integ.getItems().addAll("Velocity Verlet (fast+stable)", "RK4 (precise)", "RK45 adaptive (very precise)", "Relativistic Geodesics (Schwarzschild/Kerr)");
+        integ.getItems().addAll("Velocity Verlet (fast+stable)", "Yoshida 4 (symplectic)", "Yoshida 6 (symplectic)", "Block timesteps (adaptive per particle)", "RK4 (precise)", "RK45 adaptive (very precise)", "Relativistic Geodesics (Schwarzschild/Kerr)");
         integ.getSelectionModel().select(0);
         integ.setMaxWidth(Double.MAX_VALUE);
         integ.setOnAction(e -> {
             String v = integ.getValue();
-            if (v.startsWith("RK4")) engine.setIntegrator(rk4);
-            else if (v.startsWith("RK45")) engine.setIntegrator(rk45);
-            else if (v.startsWith("Relativistic")) engine.setIntegrator(geodesic);
-            else engine.setIntegrator(verlet);
+            Integrator in;
+            if (v.startsWith("RK4")) in = rk4;
+            else if (v.startsWith("RK45")) in = rk45;
+            else if (v.startsWith("Relativistic")) in = geodesic;
+            else if (v.startsWith("Yoshida 4")) in = yoshida4;
+            else if (v.startsWith("Yoshida 6")) in = yoshida6;
+            else if (v.startsWith("Block")) in = block;
+            else in = verlet;
+            submit(en -> en.setIntegrator(in));
         });
 
         
@@ -173,11 +204,12 @@ public class MainView {
             int p = (int) Math.round(nv.doubleValue());
 
             
-            rk4.setSubsteps(p);
-
-            
             double t = Math.pow(10, -2.0 - (p - 1) * (3.0 / 9.0));
-            rk45.setTolerance(t);
+            submit(en -> {
+                rk4.setSubsteps(p);
+                block.setMaxLevel(p + 3);
+                rk45.setTolerance(t);
+            });
         });
 
         
@@ -186,59 +218,80 @@ public class MainView {
         metric.getItems().addAll(RelativityMode.NEWTONIAN, RelativityMode.SCHWARZSCHILD, RelativityMode.KERR);
         metric.getSelectionModel().select(engine.getParams().relativityMode);
         metric.setMaxWidth(Double.MAX_VALUE);
-        metric.setOnAction(e -> engine.getParams().relativityMode = metric.getValue());
+        metric.setOnAction(e -> {
+            RelativityMode mode = metric.getValue();
+            submit(en -> en.getParams().relativityMode = mode);
+        });
 
         Label spinLabel = new Label("Spin a* (selected BH)");
         Slider spin = new Slider(0.0, 0.999, 0.0);
         spin.setShowTickLabels(true);
         spin.setShowTickMarks(true);
         spin.valueProperty().addListener((obs, o, v) -> {
-            BlackHole selected = getSelectedBh();
-            if (selected != null) selected.setSpin(v.doubleValue());
+            String id = getSelectedBhId();
+            if (id == null) return;
+            double value = v.doubleValue();
+            submit(en -> {
+                BlackHole selected = en.getBlackHoleById(id);
+                if (selected != null) selected.setSpin(value);
+            });
         });
 
         CheckBox disk = new CheckBox("Accretion disk (emissivity + Doppler/redshift)");
         disk.setSelected(engine.getParams().enableAccretionDisk);
-        disk.setOnAction(e -> engine.getParams().enableAccretionDisk = disk.isSelected());
+        disk.setOnAction(e -> {
+            boolean on = disk.isSelected();
+            submit(en -> en.getParams().enableAccretionDisk = on);
+        });
 
         CheckBox bhDyn = new CheckBox("BH dynamics + merge (momentum + GW loss)");
         bhDyn.setSelected(engine.getParams().enableBHDynamics);
-        bhDyn.setOnAction(e -> engine.getParams().enableBHDynamics = bhDyn.isSelected());
+        bhDyn.setOnAction(e -> {
+            boolean on = bhDyn.isSelected();
+            submit(en -> en.getParams().enableBHDynamics = on);
+        });
 
         Label gwLabel = new Label("GW loss strength");
         Slider gw = new Slider(0.0, 1.0, engine.getParams().gwLossStrength);
         gw.setShowTickLabels(true);
         gw.setShowTickMarks(true);
-        gw.valueProperty().addListener((obs, o, v) -> engine.getParams().gwLossStrength = v.doubleValue());
+        gw.valueProperty().addListener((obs, o, v) -> {
+            double value = v.doubleValue();
+            submit(en -> en.getParams().gwLossStrength = value);
+        });
 
         Button addPhoton = new Button("Add photon");
         Button photonBurst = new Button("Photon burst");
 
         addPhoton.setOnAction(e -> {
             Vec2 w = camera.screenToWorld(canvas.getWidth() * 0.55, canvas.getHeight() * 0.45);
-            Vec2 v = new Vec2(0, -engine.getParams().c);
-            Particle p = new Particle(new Vec2(w.x, w.y), v);
-            p.setPhoton(true);
-            p.setGeodesic(true);
-            p.setColor(Color.rgb(255, 255, 255, 0.9));
-            p.setRadius(1.8);
-            p.setMaxTrailPoints(220);
-            engine.addParticle(p);
+            submit(en -> {
+                Vec2 v = new Vec2(0, -en.getParams().c);
+                Particle p = new Particle(new Vec2(w.x, w.y), v);
+                p.setPhoton(true);
+                p.setGeodesic(true);
+                p.setColor(Argb.rgb(255, 255, 255, 0.9));
+                p.setRadius(1.8);
+                p.setMaxTrailPoints(220);
+                en.addParticle(p);
+            });
         });
 
         photonBurst.setOnAction(e -> {
             Vec2 w = camera.screenToWorld(canvas.getWidth() * 0.55, canvas.getHeight() * 0.45);
-            for (int i = 0; i < 140; i++) {
-                double a = Math.random() * Math.PI * 2.0;
-                Vec2 v = new Vec2(Math.cos(a) * engine.getParams().c, Math.sin(a) * engine.getParams().c);
-                Particle p = new Particle(new Vec2(w.x, w.y), v);
-                p.setPhoton(true);
-                p.setGeodesic(true);
-                p.setColor(Color.rgb(255, 255, 255, 0.65));
-                p.setRadius(1.4);
-                p.setMaxTrailPoints(260);
-                engine.addParticle(p);
-            }
+            submit(en -> {
+                for (int i = 0; i < 140; i++) {
+                    double a = Math.random() * Math.PI * 2.0;
+                    Vec2 v = new Vec2(Math.cos(a) * en.getParams().c, Math.sin(a) * en.getParams().c);
+                    Particle p = new Particle(new Vec2(w.x, w.y), v);
+                    p.setPhoton(true);
+                    p.setGeodesic(true);
+                    p.setColor(Argb.rgb(255, 255, 255, 0.65));
+                    p.setRadius(1.4);
+                    p.setMaxTrailPoints(260);
+                    en.addParticle(p);
+                }
+            });
         });
 
 
@@ -258,8 +311,13 @@ public class MainView {
         mass.setShowTickMarks(true);
         mass.valueProperty().addListener((obs, o, v) -> {
             ui.setMass(v.doubleValue());
-            BlackHole selected = getSelectedBh();
-            if (selected != null) selected.setMass(ui.getMass());
+            String id = getSelectedBhId();
+            if (id == null) return;
+            double value = ui.getMass();
+            submit(en -> {
+                BlackHole selected = en.getBlackHoleById(id);
+                if (selected != null) selected.setMass(value);
+            });
         });
 
         
@@ -267,7 +325,10 @@ public class MainView {
         Slider c = new Slider(20, 140, engine.getParams().c);
         c.setShowTickLabels(true);
         c.setShowTickMarks(true);
-        c.valueProperty().addListener((obs, o, v) -> engine.getParams().c = v.doubleValue());
+        c.valueProperty().addListener((obs, o, v) -> {
+            double value = v.doubleValue();
+            submit(en -> en.getParams().c = value);
+        });
 
         
         Button placeBh = new Button("Place Black Hole");
@@ -277,11 +338,12 @@ public class MainView {
         Button removeBh = new Button("Remove selected BH");
         removeBh.setMaxWidth(Double.MAX_VALUE);
         removeBh.setOnAction(e -> {
-            BlackHole selected = getSelectedBh();
-            if (selected == null) return;
-            if (engine.getBlackHoles().size() <= 1) return;
-            engine.removeBlackHoleById(selected.getId());
-            refreshBhSelect();
+            String id = getSelectedBhId();
+            if (id == null) return;
+            submit(en -> {
+                if (en.getBlackHoles().size() <= 1) return;
+                en.removeBlackHoleById(id);
+            });
         });
 
         
@@ -289,7 +351,10 @@ public class MainView {
         Slider speed = new Slider(0.10, 4.0, ui.getSpeed());
         speed.setShowTickLabels(true);
         speed.setShowTickMarks(true);
-        speed.valueProperty().addListener((obs, o, v) -> ui.setSpeed(v.doubleValue()));
+        speed.valueProperty().addListener((obs, o, v) -> {
+            ui.setSpeed(v.doubleValue());
+            loop.setSpeed(ui.getSpeed());
+        });
 
         
         Label zoomLabel = new Label("Zoom");
@@ -304,12 +369,18 @@ public class MainView {
         
         ToggleButton pause = new ToggleButton("Pause");
         pause.setSelected(ui.isPaused());
-        pause.selectedProperty().addListener((obs, o, v) -> ui.setPaused(v));
+        pause.selectedProperty().addListener((obs, o, v) -> {
+            ui.setPaused(v);
+            loop.setPaused(v);
+        });
 
         
         ToggleButton trails = new ToggleButton("Trails");
         trails.setSelected(ui.isTrailsEnabled());
-        trails.selectedProperty().addListener((obs, o, v) -> ui.setTrailsEnabled(v));
+        trails.selectedProperty().addListener((obs, o, v) -> {
+            ui.setTrailsEnabled(v);
+            loop.setPushTrails(v);
+        });
 
         ToggleButton grid = new ToggleButton("Grid distortion");
         grid.setSelected(ui.isGridDistortionEnabled());
@@ -319,25 +390,34 @@ public class MainView {
         velVec.setSelected(ui.isVelocityVectorsEnabled());
         velVec.selectedProperty().addListener((obs, o, v) -> ui.setVelocityVectorsEnabled(v));
 
+        ToggleButton pixelParticles = new ToggleButton("Pixel particles (additive)");
+        pixelParticles.setSelected(ui.isPixelParticlesEnabled());
+        pixelParticles.selectedProperty().addListener((obs, o, v) -> ui.setPixelParticlesEnabled(v));
+
         HBox toggles = new HBox(pause, trails, grid);
         toggles.setSpacing(10);
 
         
         Button addBurst = new Button("Add burst (+200)");
         addBurst.setMaxWidth(Double.MAX_VALUE);
-        addBurst.setOnAction(e -> engine.addRandomBurst(new Vec2(0, 0), 200, 300));
+        addBurst.setOnAction(e -> submit(en -> en.addRandomBurst(new Vec2(0, 0), 200, 300)));
+
+        // Meant for the pixel-particle mode; drawn with one fillOval each it would stall the canvas.
+        Button addBigBurst = new Button("Add burst (+100k)");
+        addBigBurst.setMaxWidth(Double.MAX_VALUE);
+        addBigBurst.setOnAction(e -> submit(en -> en.addRandomBurst(new Vec2(0, 0), 100_000, 600)));
 
         Button addOne = new Button("Add particle");
         addOne.setMaxWidth(Double.MAX_VALUE);
-        addOne.setOnAction(e -> {
+        addOne.setOnAction(e -> submit(en -> {
             Vec2 pos = new Vec2(220, 0);
-            Vec2 vel = engine.makeTangentialOrbitVelocity(pos, 1.0);
-            engine.addParticle(new Particle(pos, vel));
-        });
+            Vec2 vel = en.makeTangentialOrbitVelocity(pos, 1.0);
+            en.addParticle(new Particle(pos, vel));
+        }));
 
         Button clear = new Button("Clear particles");
         clear.setMaxWidth(Double.MAX_VALUE);
-        clear.setOnAction(e -> engine.clearParticles());
+        clear.setOnAction(e -> submit(SimulationEngine::clearParticles));
 
         Label info = new Label(
                 "Professional notes:\n" +
@@ -375,9 +455,9 @@ public class MainView {
                 speedLabel, speed,
                 zoomLabel, zoom,
                 toggles,
-                velVec,
+                new HBox(10, velVec, pixelParticles),
                 new Separator(),
-                addBurst, addOne, clear,
+                addBurst, addBigBurst, addOne, clear,
                 new Separator(),
                 info
         );
@@ -387,8 +467,11 @@ public class MainView {
     }
 
     private void setupSimulationDefaults() {
+        loop.setSpeed(ui.getSpeed());
+        loop.setPaused(ui.isPaused());
+        loop.setPushTrails(ui.isTrailsEnabled());
         resetCamera();
-        applyPreset("Accretion disk");
+        applyPreset(Scenarios.ACCRETION_DISK);
     }
 
     private void resetCamera() {
@@ -398,71 +481,40 @@ public class MainView {
 
     private void refreshBhSelect() {
         bhSelect.getItems().clear();
-        for (BlackHole bh : engine.getBlackHoles()) {
+        for (BlackHole bh : snapshot.blackHoles) {
             bhSelect.getItems().add(bh.getId());
         }
         if (!bhSelect.getItems().isEmpty()) bhSelect.getSelectionModel().select(0);
         syncMassFromSelectedBh();
-        bhCountLabel.setText("Black holes: " + engine.getBlackHoles().size());
+        bhCountLabel.setText("Black holes: " + snapshot.blackHoles.size());
     }
 
-    private BlackHole getSelectedBh() {
+    private String getSelectedBhId() {
         if (bhSelect == null) return null;
-        String id = bhSelect.getSelectionModel().getSelectedItem();
-        if (id == null) return null;
-
-        for (BlackHole bh : engine.getBlackHoles()) {
-            if (bh.getId().equals(id)) return bh;
-        }
-        return null;
+        return bhSelect.getSelectionModel().getSelectedItem();
     }
 
     private void syncMassFromSelectedBh() {
-        BlackHole selected = getSelectedBh();
+        String id = getSelectedBhId();
+        BlackHole selected = id != null ? snapshot.findBlackHole(id) : null;
         if (selected != null) ui.setMass(selected.getMass());
     }
 
-    private void applyPreset(String preset) {
-        engine.clearParticles();
-        engine.clearBlackHoles();
-
-        switch (preset) {
-            case "Stable orbit" -> {
-                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), 90));
-                Vec2 p = new Vec2(320, 0);
-                Vec2 v = engine.makeTangentialOrbitVelocity(p, 1.0);
-                Particle single = new Particle(p, v);
-                single.setMaxTrailPoints(160);
-                engine.addParticle(single);
-                engine.addRandomBurst(new Vec2(0, 0), 80, 380);
-            }
-            case "Binary system" -> {
-                BlackHole b1 = new BlackHole("BH-1", new Vec2(-170, 0), new Vec2(0, 135), 80, 0.2);
-                BlackHole b2 = new BlackHole("BH-2", new Vec2(170, 0), new Vec2(0, -135), 80, 0.2);
-                engine.addBlackHole(b1);
-                engine.addBlackHole(b2);
-                engine.addRandomBurst(new Vec2(0, 0), 320, 520);
-            }
-            case "Slingshot" -> {
-                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), 120));
-                Vec2 p = new Vec2(-620, -160);
-                Vec2 v = new Vec2(420, 120);
-
-                Particle probe = new Particle(p, v);
-                probe.setColor(Color.rgb(255, 220, 140, 0.92));
-                probe.setRadius(3.0);
-                probe.setMaxTrailPoints(200);
-
-                engine.addParticle(probe);
-                engine.addRandomBurst(new Vec2(0, 0), 120, 420);
-            }
-            default -> { 
-                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), ui.getMass()));
-                engine.addRandomBurst(new Vec2(0, 0), 420, 360);
-            }
-        }
+    // Runs a command on the simulation thread and shows an error dialog if it throws there.
+    private void submit(Consumer<SimulationEngine> command) {
+        loop.submit(command).whenComplete((v, error) -> {
+            if (error == null) return;
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.ERROR, String.valueOf(error.getMessage()));
+                alert.setHeaderText("Simulation command failed: " + error.getClass().getSimpleName());
+                alert.show();
+            });
+        });
+    }
 
-        refreshBhSelect();
+    private void applyPreset(String preset) {
+        double mass = ui.getMass();
+        submit(engine -> Scenarios.applyPreset(engine, preset, mass));
     }
 
     private void setupInputs() {
@@ -475,18 +527,20 @@ public class MainView {
             Vec2 world = camera.screenToWorld(e.getX(), e.getY());
 
             if (ui.isPlaceBlackHoleMode()) {
-                String id = engine.nextBlackHoleId();
-                engine.addBlackHole(new BlackHole(id, world, 80));
                 ui.setPlaceBlackHoleMode(false);
-                refreshBhSelect();
+                submit(en -> en.addBlackHole(new BlackHole(en.nextBlackHoleId(), world, 80)));
                 return;
             }
 
-            Vec2 vel = engine.makeTangentialOrbitVelocity(world, 0.95);
-            vel.x *= 0.95 + Math.random() * 0.12;
-            vel.y *= 0.95 + Math.random() * 0.12;
+            double jx = 0.95 + Math.random() * 0.12;
+            double jy = 0.95 + Math.random() * 0.12;
+            submit(en -> {
+                Vec2 vel = en.makeTangentialOrbitVelocity(world, 0.95);
+                vel.x *= jx;
+                vel.y *= jy;
 
-            engine.addParticle(new Particle(world, vel));
+                en.addParticle(new Particle(world, vel));
+            });
         });
 
         canvas.setOnMousePressed(e -> {
@@ -496,7 +550,7 @@ public class MainView {
             if (e.isShiftDown() && e.getButton() == MouseButton.PRIMARY) {
                 BlackHole near = findBlackHoleNearScreen(e.getX(), e.getY(), 22);
                 if (near != null) {
-                    draggingBlackHole = near;
+                    draggingBlackHoleId = near.getId();
                     panning = false;
                     return;
                 }
@@ -509,17 +563,20 @@ public class MainView {
 
         canvas.setOnMouseReleased(e -> {
             panning = false;
-            draggingBlackHole = null;
+            draggingBlackHoleId = null;
         });
 
         canvas.setOnMouseDragged(e -> {
             double dx = e.getX() - lastMouseX;
             double dy = e.getY() - lastMouseY;
 
-            if (draggingBlackHole != null) {
+            if (draggingBlackHoleId != null) {
                 Vec2 w = camera.screenToWorld(e.getX(), e.getY());
-                draggingBlackHole.getPosition().x = w.x;
-                draggingBlackHole.getPosition().y = w.y;
+                String id = draggingBlackHoleId;
+                submit(en -> {
+                    BlackHole bh = en.getBlackHoleById(id);
+                    if (bh != null) bh.getPosition().set(w.x, w.y);
+                });
             } else if (panning) {
                 camera.getCenterWorld().x -= dx / camera.getZoom();
                 camera.getCenterWorld().y -= dy / camera.getZoom();
@@ -551,7 +608,7 @@ public class MainView {
         double best = Double.POSITIVE_INFINITY;
         BlackHole bestBh = null;
 
-        for (BlackHole bh : engine.getBlackHoles()) {
+        for (BlackHole bh : snapshot.blackHoles) {
             Vec2 c = camera.worldToScreen(bh.getPosition());
             double dx = c.x - sx;
             double dy = c.y - sy;
@@ -569,30 +626,20 @@ public class MainView {
         GraphicsContext g = canvas.getGraphicsContext2D();
 
         timer = new AnimationTimer() {
-            private long lastNs = 0;
-
             @Override
             public void handle(long now) {
-                if (lastNs == 0) {
-                    lastNs = now;
-                    return;
+                snapshot = loop.acquireSnapshot();
+                if (snapshot.blackHoleSetVersion != shownBlackHoleSetVersion) {
+                    shownBlackHoleSetVersion = snapshot.blackHoleSetVersion;
+                    refreshBhSelect();
                 }
 
-                double dt = (now - lastNs) / 1_000_000_000.0;
-                lastNs = now;
-
-                dt = Math.min(dt, 0.05);
-
                 renderer.setDrawTrails(ui.isTrailsEnabled());
                 renderer.setDrawGridDistortion(ui.isGridDistortionEnabled());
                 renderer.setDrawVelocityVectors(ui.isVelocityVectorsEnabled());
+                renderer.setPixelParticles(ui.isPixelParticlesEnabled());
 
-                if (!ui.isPaused()) {
-                    double simDt = dt * ui.getSpeed();
-                    engine.update(simDt, ui.isTrailsEnabled());
-                }
-
-                renderer.render(g, canvas.getWidth(), canvas.getHeight());
+                renderer.render(g, snapshot, canvas.getWidth(), canvas.getHeight());
             }
         };
     }
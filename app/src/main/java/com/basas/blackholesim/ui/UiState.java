@@ -11,6 +11,7 @@ public class UiState {
     private boolean trailsEnabled = true;
     private boolean gridDistortionEnabled = true;
     private boolean velocityVectorsEnabled = false;
+    private boolean pixelParticlesEnabled = false;
 
     
     private boolean placeBlackHoleMode = false;
@@ -36,6 +37,9 @@ public class UiState {
     public boolean isVelocityVectorsEnabled() { return velocityVectorsEnabled; }
     public void setVelocityVectorsEnabled(boolean velocityVectorsEnabled) { this.velocityVectorsEnabled = velocityVectorsEnabled; }
 
+    public boolean isPixelParticlesEnabled() { return pixelParticlesEnabled; }
+    public void setPixelParticlesEnabled(boolean pixelParticlesEnabled) { this.pixelParticlesEnabled = pixelParticlesEnabled; }
+
     public boolean isPlaceBlackHoleMode() { return placeBlackHoleMode; }
     public void setPlaceBlackHoleMode(boolean placeBlackHoleMode) { this.placeBlackHoleMode = placeBlackHoleMode; }
 }
@@ -0,0 +1,54 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import com.basas.blackholesim.core.physics.VelocityVerletIntegrator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Engine step with many black holes, direct sum (theta = 0) against the
+ * Barnes-Hut tree at a few opening angles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class BarnesHutBenchmark {
+
+    private static final double DT = 1.0 / 120.0;
+
+    @Param({ "64", "256", "1024" })
+    public int blackHoles;
+
+    @Param({ "10000" })
+    public int particles;
+
+    @Param({ "0", "0.5", "0.8" })
+    public double theta;
+
+    private SimulationEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        engine = new SimulationEngine();
+        engine.setIntegrator(new VelocityVerletIntegrator());
+        engine.getParams().barnesHutTheta = theta;
+        engine.getParams().barnesHutMinBlackHoles = 2;
+        BenchScenes.populate(engine, blackHoles, particles, RelativityMode.SCHWARZSCHILD);
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public int step() {
+        engine.update(DT, false);
+        return engine.getParticleCount();
+    }
+}
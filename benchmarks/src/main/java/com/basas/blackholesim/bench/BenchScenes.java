@@ -0,0 +1,39 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.RelativityMode;
+
+/*
+ * Deterministic scenes shared by the benchmarks: black holes on a ring with
+ * roughly circular velocities and a burst of orbiting particles around them.
+ */
+final class BenchScenes {
+
+    static final double MASS = 80.0;
+
+    // The UI's c slider range (20..140); the engine default of 1200 makes geodesics unstable.
+    static final double C = 60.0;
+
+    private BenchScenes() { }
+
+    static void populate(SimulationEngine engine, int blackHoles, int particles, RelativityMode mode) {
+        engine.clearParticles();
+        engine.clearBlackHoles();
+        engine.setRandomSeed(42);
+        engine.getParams().c = C;
+        engine.getParams().relativityMode = mode;
+
+        double ring = blackHoles > 1 ? 420.0 : 0.0;
+        double v = blackHoles > 1 ? 0.5 * Math.sqrt(engine.getParams().G * MASS * blackHoles / ring) : 0.0;
+        for (int j = 0; j < blackHoles; j++) {
+            double a = 2.0 * Math.PI * j / blackHoles;
+            Vec2 pos = new Vec2(Math.cos(a) * ring, Math.sin(a) * ring);
+            Vec2 vel = new Vec2(-Math.sin(a) * v, Math.cos(a) * v);
+            engine.addBlackHole(new BlackHole("BH-" + (j + 1), pos, vel, MASS, 0.5));
+        }
+
+        engine.addRandomBurst(new Vec2(0, 0), particles, ring + 360.0);
+    }
+}
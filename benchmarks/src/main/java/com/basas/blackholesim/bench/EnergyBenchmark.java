@@ -0,0 +1,49 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.cli.HeadlessRunner;
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * SimulationEngine.totalEnergy, evaluated for the HUD drift readout on every
+ * published snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class EnergyBenchmark {
+
+    @Param({ "pw", "newtonian" })
+    public String model;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int particles;
+
+    @Param({ "1", "4" })
+    public int blackHoles;
+
+    private SimulationEngine engine;
+
+    @Setup
+    public void setup() {
+        engine = new SimulationEngine();
+        engine.setGravityModel(HeadlessRunner.gravityModel(model));
+        BenchScenes.populate(engine, blackHoles, particles, RelativityMode.SCHWARZSCHILD);
+    }
+
+    @TearDown
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public double totalEnergy() {
+        return engine.totalEnergy();
+    }
+}
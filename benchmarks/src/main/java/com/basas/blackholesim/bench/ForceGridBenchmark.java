@@ -0,0 +1,73 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+import com.basas.blackholesim.core.physics.ForceGridGravityModel;
+import com.basas.blackholesim.core.physics.PaczynskiWiitaGravityModel;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Particle accelerations around static holes: direct Paczynski–Wiita sum
+ * versus ForceGridGravityModel once its grid is installed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class ForceGridBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({ "exact", "grid" })
+    public String model;
+
+    @Param({ "4", "16", "64" })
+    public int blackHoles;
+
+    @Param({ "200000" })
+    public int particles;
+
+    private SimulationEngine engine;
+    private double[] ax, ay;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        engine = new SimulationEngine();
+        engine.getParams().enableBHDynamics = false;
+        ForceGridGravityModel grid = new ForceGridGravityModel(new PaczynskiWiitaGravityModel());
+        grid.setMinBlackHoles(1);
+        engine.setGravityModel(model.equals("grid") ? grid : new PaczynskiWiitaGravityModel());
+        BenchScenes.populate(engine, blackHoles, particles, RelativityMode.SCHWARZSCHILD);
+
+        // Steps until the background build has been installed (one step refreshes the holes for 'exact').
+        engine.update(1.0 / 120.0, false);
+        for (int i = 0; i < 10_000 && model.equals("grid") && !grid.isActive(); i++) {
+            engine.update(1.0 / 120.0, false);
+            Thread.sleep(1);
+        }
+        if (model.equals("grid") && !grid.isActive()) throw new IllegalStateException("force grid was never installed");
+
+        ax = new double[engine.getParticleStore().size()];
+        ay = new double[ax.length];
+    }
+
+    @TearDown
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public double[] accelerations() {
+        ParticleStore ps = engine.getParticleStore();
+        int n = ps.size();
+        for (int b = 0; b < n; b += BATCH) {
+            engine.accelerations(ps.x, ps.y, ax, ay, b, Math.min(n, b + BATCH));
+        }
+        return ax;
+    }
+}
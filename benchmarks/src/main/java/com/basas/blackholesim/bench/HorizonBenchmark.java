@@ -0,0 +1,60 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of one SimulationEngine.isInsideAnyEventHorizon query, which every
+ * integrator runs at least once per particle per step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class HorizonBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({ "1", "4", "16" })
+    public int blackHoles;
+
+    @Param({ "SCHWARZSCHILD", "KERR", "NEWTONIAN" })
+    public RelativityMode mode;
+
+    private SimulationEngine engine;
+    private final double[] qx = new double[QUERIES];
+    private final double[] qy = new double[QUERIES];
+
+    @Setup
+    public void setup() {
+        engine = new SimulationEngine();
+        BenchScenes.populate(engine, blackHoles, 0, mode);
+
+        Random r = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            qx[i] = (r.nextDouble() - 0.5) * 1600.0;
+            qy[i] = (r.nextDouble() - 0.5) * 1600.0;
+        }
+    }
+
+    @TearDown
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int isInsideAnyEventHorizon() {
+        int inside = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (engine.isInsideAnyEventHorizon(qx[i], qy[i])) inside++;
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,68 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.cli.HeadlessRunner;
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Full engine steps per second for every integrator / gravity model pair.
+ * The scene is rebuilt before each iteration because particles are absorbed
+ * or escape while stepping. Run with -prof gc for the allocation rate, and
+ * narrow the matrix with -p, e.g. -p particles=100000 -p integrator=rk4.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class IntegratorBenchmark {
+
+    private static final double DT = 1.0 / 120.0;
+
+    @Param({ "verlet", "yoshida4", "yoshida6", "block", "rk4", "rk45", "geodesic" })
+    public String integrator;
+
+    @Param({ "pw", "newtonian" })
+    public String model;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int particles;
+
+    @Param({ "1", "4" })
+    public int blackHoles;
+
+    @Param({ "SCHWARZSCHILD", "KERR", "NEWTONIAN" })
+    public RelativityMode mode;
+
+    @Param({ "false" })
+    public boolean trails;
+
+    private SimulationEngine engine;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        engine = new SimulationEngine();
+        engine.setIntegrator(HeadlessRunner.integrator(integrator));
+        engine.setGravityModel(HeadlessRunner.gravityModel(model));
+    }
+
+    @Setup(Level.Iteration)
+    public void populate() {
+        BenchScenes.populate(engine, blackHoles, particles, mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public int step() {
+        engine.update(DT, trails);
+        return engine.getParticleCount();
+    }
+}
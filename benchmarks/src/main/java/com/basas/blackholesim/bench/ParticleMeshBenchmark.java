@@ -0,0 +1,49 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * One self-gravity mesh solve (deposit, FFT convolution, gradient) per
+ * particle count and mesh size, without the integrator around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class ParticleMeshBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int particles;
+
+    @Param({ "128", "256", "512" })
+    public int meshSize;
+
+    private SimulationEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = new SimulationEngine();
+        BenchScenes.populate(engine, 1, particles, RelativityMode.SCHWARZSCHILD);
+        engine.getParams().selfGravity = true;
+        engine.getParams().meshSize = meshSize;
+        engine.getBlackHoleSnapshot().update(engine.getBlackHoles(), engine.getGravityModel(), engine.getParams());
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public boolean solve() {
+        engine.getParticleMesh().solve(engine.getParticleStore(), engine.getBlackHoleSnapshot(),
+                engine.getParams(), engine.getExecutor());
+        return engine.getParticleMesh().isSolved();
+    }
+}
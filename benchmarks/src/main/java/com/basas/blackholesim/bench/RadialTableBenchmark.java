@@ -0,0 +1,67 @@
+package com.basas.blackholesim.bench;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+import com.basas.blackholesim.core.physics.BlackHoleSnapshot;
+import com.basas.blackholesim.core.physics.PaczynskiWiitaGravityModel;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+import com.basas.blackholesim.core.physics.RelativityMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Paczynski–Wiita batch acceleration, single thread: exact scalar loop, exact
+ * SIMD kernel, and RadialTable lookups (params.radialTables, scalar path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class RadialTableBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({ "scalar", "simd", "table" })
+    public String mode;
+
+    @Param({ "100000", "1000000" })
+    public int particles;
+
+    @Param({ "1", "4" })
+    public int blackHoles;
+
+    private final PaczynskiWiitaGravityModel model = new PaczynskiWiitaGravityModel();
+    private final BlackHoleSnapshot snapshot = new BlackHoleSnapshot();
+    private PhysicsParams params;
+    private double[] x, y, ax, ay;
+
+    @Setup
+    public void setup() {
+        SimulationEngine engine = new SimulationEngine();
+        BenchScenes.populate(engine, blackHoles, particles, RelativityMode.SCHWARZSCHILD);
+        ParticleStore ps = engine.getParticleStore();
+        x = Arrays.copyOf(ps.x, ps.size());
+        y = Arrays.copyOf(ps.y, ps.size());
+        ax = new double[x.length];
+        ay = new double[x.length];
+
+        params = engine.getParams().copy();
+        params.vectorKernels = mode.equals("simd");
+        params.radialTables = mode.equals("table");
+        snapshot.update(engine.getBlackHoles(), model, params);
+        model.prepare(snapshot, params);
+        engine.getExecutor().shutdown();
+    }
+
+    @Benchmark
+    public double[] accelerationBatch() {
+        for (int b = 0; b < x.length; b += BATCH) {
+            model.accelerationBatch(snapshot, x, y, ax, ay, b, Math.min(x.length, b + BATCH), params);
+        }
+        return ax;
+    }
+}
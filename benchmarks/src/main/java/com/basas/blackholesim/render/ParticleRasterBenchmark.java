@@ -0,0 +1,69 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.RenderSnapshot;
+import com.basas.blackholesim.core.math.Argb;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ParticleRasterizer on a 1600x900 framebuffer (binning, splatting and
+ * resolve; the PixelBuffer upload needs a toolkit and is left out).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleRasterBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int particles;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    // World radius at zoom 1: 0.5 takes the single-pixel path, 1.7 splats discs of about 9 pixels.
+    @Param({ "0.5", "1.7" })
+    public double radius;
+
+    private final Camera camera = new Camera();
+    private final RenderSnapshot snapshot = new RenderSnapshot();
+    private ParticleExecutor executor;
+    private ParticleRasterizer rasterizer;
+
+    @Setup
+    public void setup() {
+        camera.setViewport(1600, 900);
+        Random random = new Random(42);
+        int n = particles;
+        snapshot.x = new double[n];
+        snapshot.y = new double[n];
+        snapshot.radius = new double[n];
+        snapshot.color = new int[n];
+        for (int i = 0; i < n; i++) {
+            double a = random.nextDouble() * Math.PI * 2.0;
+            double r = 40.0 + 560.0 * Math.sqrt(random.nextDouble());
+            snapshot.x[i] = Math.cos(a) * r;
+            snapshot.y[i] = Math.sin(a) * r;
+            snapshot.radius[i] = radius;
+            snapshot.color[i] = Argb.hsb(200 + random.nextDouble() * 60.0, 0.35, 1.0, 0.9);
+        }
+        snapshot.particleCount = n;
+        executor = new ParticleExecutor(threads);
+        rasterizer = new ParticleRasterizer(executor);
+    }
+
+    @TearDown
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int[] rasterize() {
+        return rasterizer.rasterize(snapshot, camera, 1600, 900);
+    }
+}
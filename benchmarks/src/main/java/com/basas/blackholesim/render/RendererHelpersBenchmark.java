@@ -0,0 +1,87 @@
+package com.basas.blackholesim.render;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Argb;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Per-element CanvasRenderer helpers and the accretion-disk raster, timed
+ * without a JavaFX toolkit (Color and the math don't need one). Lives in the
+ * render package because the helpers are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendererHelpersBenchmark {
+
+    private static final int GRID = 64;
+
+    @Param({ "1", "4" })
+    public int blackHoles;
+
+    private final Camera camera = new Camera();
+    private final CanvasRenderer renderer = new CanvasRenderer(camera);
+    private final GridMesh gridMesh = new GridMesh(new ParticleExecutor(1));
+    private final PhysicsParams params = new PhysicsParams();
+    private final List<BlackHole> holes = new ArrayList<>();
+    private final int[] colors = new int[256];
+
+    @Setup
+    public void setup() {
+        camera.setViewport(1600, 900);
+        params.c = 60.0;
+        for (int j = 0; j < blackHoles; j++) {
+            holes.add(new BlackHole("BH-" + (j + 1), new Vec2(j * 300.0, 0), 80));
+        }
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = Argb.hsb(200 + i * 60.0 / colors.length, 0.35, 1.0, 0.9);
+        }
+    }
+
+    // One accretion-disk texture at zoom 1, as rebuilt by AccretionDiskCache off the FX thread.
+    @Benchmark
+    public AccretionDiskCache.Raster diskRaster() {
+        BlackHole hole = holes.get(0);
+        return AccretionDiskCache.rasterize(hole.getMass(), hole.getSpin(), params, 1.0);
+    }
+
+    // A full GridMesh rebuild of GRID x GRID vertices, as after a hole moved (one hole's mass alternates to force it).
+    @Benchmark
+    @OperationsPerInvocation(GRID * GRID)
+    public void gridMeshVertex() {
+        BlackHole hole = holes.get(0);
+        hole.setMass(hole.getMass() == 80 ? 81 : 80);
+        gridMesh.update(holes, 12.0, 0, 0, GRID - 1, GRID - 1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void particleColor(Blackhole bh) {
+        for (int c : colors) {
+            Color color = renderer.toColor(c);
+            bh.consume(color);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRID * GRID)
+    public void worldToScreen(Blackhole bh) {
+        for (int y = 0; y < GRID; y++) {
+            for (int x = 0; x < GRID; x++) {
+                bh.consume(camera.worldToScreen(x * 20.0 - 640.0, y * 20.0 - 640.0));
+            }
+        }
+    }
+}
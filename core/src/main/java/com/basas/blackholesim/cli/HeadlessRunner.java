@@ -0,0 +1,210 @@
+package com.basas.blackholesim.cli;
+
+import com.basas.blackholesim.core.Scenarios;
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.entities.ParticleStore;
+import com.basas.blackholesim.core.physics.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Batch entry point for headless machines: loads a scenario, advances a fixed
+ * number of fixed-size steps and writes the final state and diagnostics as CSV.
+ * Uses only the core module, so no JavaFX toolkit is started.
+ */
+public final class HeadlessRunner {
+
+    private static final String USAGE = """
+            Usage: java -jar blackhole-sim-core.jar [options]
+
+              --scenario <preset|file>   built-in preset name or scenario file (default: "Accretion disk")
+              --steps <n>                number of fixed steps (default: 1000)
+              --dt <seconds>             step size (default: 1/120)
+              --integrator <name>        verlet | yoshida4 | yoshida6 | block | rk4 | rk45 | geodesic
+                                         (default: verlet)
+              --model <name>             pw | newtonian, "+grid" for a cached force grid when holes are
+                                         static, at least 16 (SIMD) or 2 (scalar) and fewer than
+                                         barnesHutMinBlackHoles, e.g. pw+grid (default: pw)
+              --param <name>=<value>     override a PhysicsParams field, repeatable
+              --seed <long>              seed for random bursts (default: 1)
+              --threads <n>              particle worker threads (default: all processors)
+              --trails                   record trail points while stepping
+              --out <file>               final state CSV (default: none)
+              --diagnostics <file>       diagnostics CSV (default: stdout)
+              --every <n>                diagnostics sample interval in steps (default: steps / 100)
+            """;
+
+    private String scenario = Scenarios.ACCRETION_DISK;
+    private long steps = 1000;
+    private double dt = 1.0 / 120.0;
+    private String integrator = "verlet";
+    private String model = "pw";
+    private final List<String> params = new ArrayList<>();
+    private long seed = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean trails = false;
+    private Path out;
+    private Path diagnostics;
+    private long every = -1;
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.ROOT);
+
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            runner.run();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--help", "-h" -> {
+                    System.out.print(USAGE);
+                    System.exit(0);
+                }
+                case "--scenario" -> scenario = value(args, ++i, a);
+                case "--steps" -> steps = Long.parseLong(value(args, ++i, a));
+                case "--dt" -> dt = Double.parseDouble(value(args, ++i, a));
+                case "--integrator" -> integrator = value(args, ++i, a);
+                case "--model" -> model = value(args, ++i, a);
+                case "--param" -> params.add(value(args, ++i, a));
+                case "--seed" -> seed = Long.parseLong(value(args, ++i, a));
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i, a));
+                case "--trails" -> trails = true;
+                case "--out" -> out = Path.of(value(args, ++i, a));
+                case "--diagnostics" -> diagnostics = Path.of(value(args, ++i, a));
+                case "--every" -> {
+                    every = Long.parseLong(value(args, ++i, a));
+                    if (every < 1) throw new IllegalArgumentException("--every must be >= 1");
+                }
+                default -> throw new IllegalArgumentException("unknown option '" + a + "'");
+            }
+        }
+        if (steps < 0) throw new IllegalArgumentException("--steps must be >= 0");
+        if (!(dt > 0)) throw new IllegalArgumentException("--dt must be > 0");
+        if (every < 0) every = Math.max(1, steps / 100);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " needs a value");
+        return args[i];
+    }
+
+    public static Integrator integrator(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "verlet" -> new VelocityVerletIntegrator();
+            case "yoshida4" -> new YoshidaIntegrator(4);
+            case "yoshida6" -> new YoshidaIntegrator(6);
+            case "block" -> new BlockTimestepIntegrator();
+            case "rk4" -> new RungeKutta4Integrator();
+            case "rk45", "dp45" -> new DormandPrince45Integrator();
+            case "geodesic" -> new RelativisticGeodesicIntegrator();
+            default -> throw new IllegalArgumentException("unknown integrator '" + name + "'");
+        };
+    }
+
+    public static GravityModel gravityModel(String name) {
+        if (name.toLowerCase(Locale.ROOT).endsWith("+grid")) {
+            return new ForceGridGravityModel(gravityModel(name.substring(0, name.length() - "+grid".length())));
+        }
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "pw", "paczynski-wiita" -> new PaczynskiWiitaGravityModel();
+            case "newtonian" -> new NewtonianGravityModel();
+            default -> throw new IllegalArgumentException("unknown gravity model '" + name + "'");
+        };
+    }
+
+    private void run() throws IOException {
+        SimulationEngine engine = new SimulationEngine();
+        engine.setThreadCount(threads);
+        engine.setRandomSeed(seed);
+        engine.setIntegrator(integrator(integrator));
+        engine.setGravityModel(gravityModel(model));
+
+        // Parameters first, so preset orbits are built with the overridden G, c, ...
+        for (String p : params) {
+            int eq = p.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("--param expects name=value, got '" + p + "'");
+            Scenarios.setParam(engine.getParams(), p.substring(0, eq), p.substring(eq + 1));
+        }
+
+        if (Scenarios.isPreset(scenario)) {
+            Scenarios.applyPreset(engine, scenario, Scenarios.DEFAULT_MASS);
+        } else {
+            Scenarios.load(engine, Path.of(scenario));
+        }
+
+        PrintWriter diag = diagnostics != null
+                ? new PrintWriter(Files.newBufferedWriter(diagnostics))
+                : new PrintWriter(System.out);
+        try {
+            diag.println("step,time,particles,black_holes,killed,energy,energy_drift,wall_ms");
+
+            long start = System.nanoTime();
+            double drift = sample(diag, engine, 0, start);
+            for (long s = 1; s <= steps; s++) {
+                engine.update(dt, trails);
+                if (s % every == 0 || s == steps) drift = sample(diag, engine, s, start);
+            }
+            double wall = (System.nanoTime() - start) / 1e9;
+            diag.flush();
+
+            System.err.printf("%s / %s / %s: %d steps in %.3f s (%.1f steps/s), %d particles left, drift %.6e%n",
+                    scenario, engine.getIntegrator().name(), engine.getGravityModel().name(),
+                    steps, wall, steps / Math.max(1e-9, wall), engine.getParticleCount(), drift);
+        } finally {
+            if (diagnostics != null) diag.close();
+            else diag.flush();
+            engine.getExecutor().shutdown();
+        }
+
+        if (out != null) writeState(engine, out);
+    }
+
+    // Writes one diagnostics row and returns its energy drift; the energy is evaluated once per row.
+    private double sample(PrintWriter diag, SimulationEngine engine, long step, long start) {
+        double energy = engine.totalEnergy();
+        double drift = engine.energyDriftRatio(energy);
+        diag.printf("%d,%.9g,%d,%d,%d,%.12e,%.6e,%.3f%n",
+                step, step * dt, engine.getParticleCount(), engine.getBlackHoles().size(), engine.getTotalKillCount(),
+                energy, drift, (System.nanoTime() - start) / 1e6);
+        return drift;
+    }
+
+    private static void writeState(SimulationEngine engine, Path file) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(file))) {
+            w.println("type,id,x,y,vx,vy,mass,spin");
+            for (BlackHole bh : engine.getBlackHoles()) {
+                w.printf("bh,%s,%.17g,%.17g,%.17g,%.17g,%.17g,%.17g%n", bh.getId(),
+                        bh.getPosition().x, bh.getPosition().y, bh.getVelocity().x, bh.getVelocity().y,
+                        bh.getMass(), bh.getSpin());
+            }
+            ParticleStore ps = engine.getParticleStore();
+            for (int i = 0; i < ps.size(); i++) {
+                String type = ps.hasFlag(i, ParticleStore.FLAG_PHOTON) ? "photon" : "particle";
+                w.printf("%s,%d,%.17g,%.17g,%.17g,%.17g,,%n", type, i, ps.x[i], ps.y[i], ps.vx[i], ps.vy[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.basas.blackholesim.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Runs a range task over [0, n) either inline or split into chunks on a
+ * dedicated ForkJoin pool. Test particles don't interact, so chunks never
+ * touch the same slots.
+ */
+public class ParticleExecutor {
+
+    public interface RangeTask {
+        void run(int from, int to);
+    }
+
+    public interface SliceTask {
+        void run(int slice, int from, int to);
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    // Written under the lock by setThreadCount / shutdown, read without it by callers on other threads.
+    private volatile int threadCount;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile ForkJoinPool pool;
+
+    public ParticleExecutor(int threadCount) {
+        setThreadCount(threadCount);
+    }
+
+    public int getThreadCount() { return threadCount; }
+
+    public synchronized void setThreadCount(int threadCount) {
+        int t = Math.max(1, threadCount);
+        if (t == this.threadCount) return;
+        this.threadCount = t;
+        if (pool != null) pool.shutdown();
+        pool = t > 1 ? new ForkJoinPool(t) : null;
+    }
+
+    public int getChunkSize() { return chunkSize; }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(64, chunkSize);
+    }
+
+    public boolean isParallel() { return pool != null; }
+
+    public void forRange(int n, RangeTask task) {
+        if (n <= 0) return;
+        ForkJoinPool p = pool;
+        if (p == null || n <= chunkSize) {
+            task.run(0, n);
+            return;
+        }
+        p.invoke(new RangeAction(task, 0, n, chunkSize));
+    }
+
+    // Splits [0, n) into exactly 'slices' contiguous ranges, so per-slice partial results can be reduced in a fixed order.
+    public void forSlices(int n, int slices, SliceTask task) {
+        if (n <= 0) return;
+        int s = Math.max(1, Math.min(slices, n));
+        ForkJoinPool p = pool;
+        if (p == null || s == 1) {
+            for (int k = 0; k < s; k++) task.run(k, sliceStart(n, s, k), sliceStart(n, s, k + 1));
+            return;
+        }
+        p.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                RecursiveAction[] parts = new RecursiveAction[s];
+                for (int k = 0; k < s; k++) {
+                    int slice = k;
+                    parts[k] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            task.run(slice, sliceStart(n, s, slice), sliceStart(n, s, slice + 1));
+                        }
+                    };
+                }
+                ForkJoinTask.invokeAll(parts);
+            }
+        });
+    }
+
+    private static int sliceStart(int n, int slices, int k) {
+        return (int) ((long) n * k / slices);
+    }
+
+    public synchronized void shutdown() {
+        if (pool != null) pool.shutdown();
+        pool = null;
+        threadCount = 1;
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        RangeAction(RangeTask task, int from, int to, int chunk) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                task.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(task, from, mid, chunk), new RangeAction(task, mid, to, chunk));
+        }
+    }
+}
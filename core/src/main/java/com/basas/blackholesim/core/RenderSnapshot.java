@@ -0,0 +1,163 @@
+package com.basas.blackholesim.core;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.entities.ParticleStore;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.GravityModel;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Copy of everything the renderer and HUD read, filled on the simulation
+ * thread and handed to the FX thread by SimulationLoop. Once published a
+ * snapshot is never written until the reader hands it back, so it can be
+ * read without locking. Arrays are reused and only grow.
+ */
+public final class RenderSnapshot {
+
+    long sequence = -1;
+
+    public int particleCount;
+    public double[] x = new double[0];
+    public double[] y = new double[0];
+    public double[] vx = new double[0];
+    public double[] vy = new double[0];
+    public double[] radius = new double[0];
+    public int[] color = new int[0];
+
+    public int[] trailStart = new int[0];
+    public int[] trailLength = new int[0];
+    public float[] trailX = new float[0];
+    public float[] trailY = new float[0];
+
+    public final List<BlackHole> blackHoles = new ArrayList<>();
+    public double[] horizonRadius = new double[0];
+    public long blackHoleSetVersion = -1;
+
+    public final PhysicsParams params = new PhysicsParams();
+    public GravityModel gravityModel;
+    public String integratorName = "";
+
+    // Sampled at a low rate by SimulationLoop; several snapshots in a row may carry the same value.
+    public double energyDrift;
+    public int lastStepKillCount;
+    public long totalKillCount;
+    public double simTime;
+    public long stepCount;
+
+    public long getSequence() { return sequence; }
+
+    void capture(SimulationEngine engine, boolean includeTrails, double simTime, long stepCount, double energyDrift) {
+        ParticleStore ps = engine.getParticleStore();
+        int n = ps.size();
+        ensureParticleCapacity(n);
+
+        System.arraycopy(ps.x, 0, x, 0, n);
+        System.arraycopy(ps.y, 0, y, 0, n);
+        System.arraycopy(ps.vx, 0, vx, 0, n);
+        System.arraycopy(ps.vy, 0, vy, 0, n);
+        System.arraycopy(ps.radius, 0, radius, 0, n);
+        System.arraycopy(ps.color, 0, color, 0, n);
+        particleCount = n;
+
+        int points = 0;
+        if (includeTrails) {
+            for (int i = 0; i < n; i++) points += ps.trailCount[i];
+        }
+        if (trailX.length < points) {
+            trailX = new float[points + (points >> 2)];
+            trailY = new float[trailX.length];
+        }
+        // Unrolls each ring buffer oldest-first, at most two copies per axis.
+        float[] ax = ps.trails.x;
+        float[] ay = ps.trails.y;
+        int w = 0;
+        for (int i = 0; i < n; i++) {
+            trailStart[i] = w;
+            int count = includeTrails ? ps.trailCount[i] : 0;
+            if (count > 0) {
+                int first = ps.trailIndex(i, 0);
+                int end = ps.trailOffset[i] + ps.trailCapacity[i];
+                int head = Math.min(count, end - first);
+                System.arraycopy(ax, first, trailX, w, head);
+                System.arraycopy(ay, first, trailY, w, head);
+                System.arraycopy(ax, ps.trailOffset[i], trailX, w + head, count - head);
+                System.arraycopy(ay, ps.trailOffset[i], trailY, w + head, count - head);
+                w += count;
+            }
+            trailLength[i] = count;
+        }
+
+        captureBlackHoles(engine);
+
+        params.copyFrom(engine.getParams());
+        gravityModel = engine.getGravityModel();
+        integratorName = engine.getIntegrator().name();
+        this.energyDrift = energyDrift;
+        lastStepKillCount = engine.getLastStepKillCount();
+        totalKillCount = engine.getTotalKillCount();
+        this.simTime = simTime;
+        this.stepCount = stepCount;
+    }
+
+    private void captureBlackHoles(SimulationEngine engine) {
+        List<BlackHole> src = engine.getBlackHoles();
+        int n = src.size();
+
+        if (blackHoleSetVersion != engine.getBlackHoleSetVersion() || blackHoles.size() != n) {
+            blackHoles.clear();
+            for (BlackHole bh : src) {
+                blackHoles.add(new BlackHole(bh.getId(), bh.getPosition().copy(), bh.getVelocity().copy(),
+                        bh.getMass(), bh.getSpin()));
+            }
+            blackHoleSetVersion = engine.getBlackHoleSetVersion();
+        } else {
+            for (int j = 0; j < n; j++) {
+                BlackHole s = src.get(j);
+                BlackHole d = blackHoles.get(j);
+                d.getPosition().set(s.getPosition().x, s.getPosition().y);
+                d.getVelocity().set(s.getVelocity().x, s.getVelocity().y);
+                d.setMass(s.getMass());
+                d.setSpin(s.getSpin());
+            }
+        }
+
+        if (horizonRadius.length < n) horizonRadius = new double[n];
+        for (int j = 0; j < n; j++) horizonRadius[j] = engine.eventHorizonRadius(src.get(j));
+    }
+
+    private void ensureParticleCapacity(int n) {
+        if (x.length >= n) return;
+        int cap = n + (n >> 2);
+        x = new double[cap];
+        y = new double[cap];
+        vx = new double[cap];
+        vy = new double[cap];
+        radius = new double[cap];
+        color = new int[cap];
+        trailStart = new int[cap];
+        trailLength = new int[cap];
+    }
+
+    public BlackHole findBlackHole(String id) {
+        for (BlackHole bh : blackHoles) {
+            if (bh.getId().equals(id)) return bh;
+        }
+        return null;
+    }
+
+    public double gravitationalFieldAt(Vec2 worldPos) {
+        if (blackHoles.isEmpty() || gravityModel == null) return 0.0;
+        Vec2 a = new Vec2();
+        gravityModel.acceleration(blackHoles, worldPos, new Vec2(0, 0), params, a);
+        return a.length();
+    }
+
+    public double escapeVelocityAt(Vec2 worldPos) {
+        if (blackHoles.isEmpty() || gravityModel == null) return 0.0;
+        double phi = gravityModel.potential(blackHoles, worldPos, params);
+        return Math.sqrt(Math.max(0.0, 2.0 * Math.abs(phi)));
+    }
+}
@@ -0,0 +1,177 @@
+package com.basas.blackholesim.core;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.entities.Particle;
+import com.basas.blackholesim.core.math.Argb;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.PhysicsParams;
+import com.basas.blackholesim.core.physics.RelativityMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Initial conditions shared by the desktop presets and the headless runner.
+ *
+ * Scenario files are plain text, one command per line ('#' starts a comment):
+ *
+ *   preset    <name>                         built-in preset, e.g. "Binary system"
+ *   blackhole <id> <x> <y> <mass> [vx vy [spin]]
+ *   particle  <x> <y> [vx vy]                no velocity = circular orbit
+ *   burst     <x> <y> <count> <radius>
+ *   param     <name> <value>                 any PhysicsParams field
+ *   seed      <long>
+ */
+public final class Scenarios {
+
+    public static final String ACCRETION_DISK = "Accretion disk";
+    public static final String STABLE_ORBIT = "Stable orbit";
+    public static final String BINARY_SYSTEM = "Binary system";
+    public static final String SLINGSHOT = "Slingshot";
+
+    public static final double DEFAULT_MASS = 80.0;
+
+    private Scenarios() { }
+
+    public static List<String> presets() {
+        return List.of(ACCRETION_DISK, STABLE_ORBIT, BINARY_SYSTEM, SLINGSHOT);
+    }
+
+    public static boolean isPreset(String name) {
+        return presets().contains(name);
+    }
+
+    public static void applyPreset(SimulationEngine engine, String preset, double defaultMass) {
+        engine.clearParticles();
+        engine.clearBlackHoles();
+
+        switch (preset) {
+            case STABLE_ORBIT -> {
+                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), 90));
+                Vec2 p = new Vec2(320, 0);
+                Vec2 v = engine.makeTangentialOrbitVelocity(p, 1.0);
+                Particle single = new Particle(p, v);
+                single.setMaxTrailPoints(160);
+                engine.addParticle(single);
+                engine.addRandomBurst(new Vec2(0, 0), 80, 380);
+            }
+            case BINARY_SYSTEM -> {
+                BlackHole b1 = new BlackHole("BH-1", new Vec2(-170, 0), new Vec2(0, 135), 80, 0.2);
+                BlackHole b2 = new BlackHole("BH-2", new Vec2(170, 0), new Vec2(0, -135), 80, 0.2);
+                engine.addBlackHole(b1);
+                engine.addBlackHole(b2);
+                engine.addRandomBurst(new Vec2(0, 0), 320, 520);
+            }
+            case SLINGSHOT -> {
+                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), 120));
+                Vec2 p = new Vec2(-620, -160);
+                Vec2 v = new Vec2(420, 120);
+
+                Particle probe = new Particle(p, v);
+                probe.setColor(Argb.rgb(255, 220, 140, 0.92));
+                probe.setRadius(3.0);
+                probe.setMaxTrailPoints(200);
+
+                engine.addParticle(probe);
+                engine.addRandomBurst(new Vec2(0, 0), 120, 420);
+            }
+            default -> {
+                engine.addBlackHole(new BlackHole("BH-1", new Vec2(0, 0), defaultMass));
+                engine.addRandomBurst(new Vec2(0, 0), 420, 360);
+            }
+        }
+    }
+
+    public static void load(SimulationEngine engine, Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+
+        engine.clearParticles();
+        engine.clearBlackHoles();
+
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n);
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            try {
+                apply(engine, line.split("\\s+"), line);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(file + ":" + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void apply(SimulationEngine engine, String[] t, String line) {
+        switch (t[0].toLowerCase(Locale.ROOT)) {
+            case "preset" -> {
+                String name = line.substring(t[0].length()).trim();
+                if (!isPreset(name)) throw new IllegalArgumentException("unknown preset '" + name + "'");
+                applyPreset(engine, name, DEFAULT_MASS);
+            }
+            case "blackhole" -> {
+                need(t, 5);
+                Vec2 pos = new Vec2(num(t[2]), num(t[3]));
+                Vec2 vel = t.length >= 7 ? new Vec2(num(t[5]), num(t[6])) : new Vec2(0, 0);
+                double spin = t.length >= 8 ? num(t[7]) : 0.0;
+                engine.addBlackHole(new BlackHole(t[1], pos, vel, num(t[4]), spin));
+            }
+            case "particle" -> {
+                need(t, 3);
+                Vec2 pos = new Vec2(num(t[1]), num(t[2]));
+                Vec2 vel = t.length >= 5 ? new Vec2(num(t[3]), num(t[4])) : engine.makeTangentialOrbitVelocity(pos, 1.0);
+                engine.addParticle(new Particle(pos, vel));
+            }
+            case "burst" -> {
+                need(t, 5);
+                engine.addRandomBurst(new Vec2(num(t[1]), num(t[2])), Integer.parseInt(t[3]), num(t[4]));
+            }
+            case "param" -> {
+                need(t, 3);
+                setParam(engine.getParams(), t[1], t[2]);
+                engine.resetEnergyBaseline();
+            }
+            case "seed" -> {
+                need(t, 2);
+                engine.setRandomSeed(Long.parseLong(t[1]));
+            }
+            default -> throw new IllegalArgumentException("unknown command '" + t[0] + "'");
+        }
+    }
+
+    public static void setParam(PhysicsParams p, String name, String value) {
+        switch (name) {
+            case "G" -> p.G = num(value);
+            case "c" -> p.c = num(value);
+            case "softening" -> p.softening = num(value);
+            case "maxAcceleration" -> p.maxAcceleration = num(value);
+            case "killDistance" -> p.killDistance = num(value);
+            case "relativityMode" -> p.relativityMode = RelativityMode.valueOf(value.toUpperCase(Locale.ROOT));
+            case "enableAccretionDisk" -> p.enableAccretionDisk = Boolean.parseBoolean(value);
+            case "enableBHDynamics" -> p.enableBHDynamics = Boolean.parseBoolean(value);
+            case "gwLossStrength" -> p.gwLossStrength = num(value);
+            case "hermiteBlackHoles" -> p.hermiteBlackHoles = Boolean.parseBoolean(value);
+            case "vectorKernels" -> p.vectorKernels = Boolean.parseBoolean(value);
+            case "barnesHutTheta" -> p.barnesHutTheta = num(value);
+            case "barnesHutMinBlackHoles" -> p.barnesHutMinBlackHoles = Integer.parseInt(value);
+            case "selfGravity" -> p.selfGravity = Boolean.parseBoolean(value);
+            case "particleMass" -> p.particleMass = num(value);
+            case "meshSize" -> p.meshSize = Integer.parseInt(value);
+            case "meshMaxExtent" -> p.meshMaxExtent = num(value);
+            case "radialTables" -> p.radialTables = Boolean.parseBoolean(value);
+            default -> throw new IllegalArgumentException("unknown parameter '" + name + "'");
+        }
+    }
+
+    private static void need(String[] t, int count) {
+        if (t.length < count) throw new IllegalArgumentException("'" + t[0] + "' needs " + (count - 1) + " arguments");
+    }
+
+    private static double num(String s) {
+        return Double.parseDouble(s);
+    }
+}
@@ -0,0 +1,674 @@
+package com.basas.blackholesim.core;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.entities.Particle;
+import com.basas.blackholesim.core.entities.ParticleStore;
+import com.basas.blackholesim.core.math.Argb;
+import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.*;
+
+import java.util.*;
+
+
+public class SimulationEngine {
+
+    private final List<BlackHole> blackHoles = new ArrayList<>();
+    private final ParticleStore particles = new ParticleStore();
+
+    private final Random random = new Random();
+
+    private final PhysicsParams params = new PhysicsParams();
+
+    private GravityModel gravityModel = new PaczynskiWiitaGravityModel();
+    private Integrator integrator = new VelocityVerletIntegrator();
+
+    
+    private double initialTotalEnergy = Double.NaN;
+
+    private long blackHoleSetVersion = 0;
+
+    private final BlackHoleSnapshot blackHoleSnapshot = new BlackHoleSnapshot();
+
+    // Built from the snapshot when there are at least params.barnesHutMinBlackHoles holes, cleared otherwise.
+    private final BarnesHutTree blackHoleTree = new BarnesHutTree();
+    private final BarnesHutTree.Kernel fieldKernel = (gm, rs, r) -> gravityModel.radialAcceleration(gm, rs, r, params);
+    private final BarnesHutTree.Kernel potentialKernel = (gm, rs, r) -> gravityModel.radialPotential(gm, rs, r, params);
+    private final BarnesHutTree.Kernel pairKernel = (gm, rs, r) -> {
+        double r2 = r * r + params.softening * params.softening;
+        return gm * r / (r2 * Math.sqrt(r2));
+    };
+    // Self-gravity field of the particles, solved at the start of each step when params.selfGravity is on.
+    private final ParticleMesh particleMesh = new ParticleMesh();
+
+    // Integrators may reuse a particle's end-of-step force (ParticleStore.FLAG_FORCE_CACHED) at the start of the
+    // next step only while this version is unchanged, i.e. holes, model and force parameters are all the same.
+    private long forceFieldVersion = 0;
+    private long fieldSnapshotVersion = -1;
+    private GravityModel fieldModel = null;
+    private long fieldModelRevision = 0;
+    private final PhysicsParams fieldParams = new PhysicsParams();
+    // What gravityModel.prepare last saw, see refreshBlackHoleSnapshot.
+    private long preparedVersion = -1;
+    private GravityModel preparedModel = null;
+    private final PhysicsParams preparedParams = new PhysicsParams();
+    // update() leaves the snapshot and tree prepared for the step it took; totalEnergy reuses them until an
+    // edit (which resets the energy baseline) or a parameter change.
+    private long energyFieldStep = -1;
+    private final PhysicsParams energyFieldParams = new PhysicsParams();
+    // The particle mesh was solved for the positions after meshStep steps, with these holes and parameters.
+    private long meshStep = -1;
+    private long meshSnapshotVersion = -1;
+    private int meshParticleCount = -1;
+    private final PhysicsParams meshParams = new PhysicsParams();
+    private long stepCount = 0;
+
+    private final HermiteBlackHoleIntegrator hermite = new HermiteBlackHoleIntegrator();
+
+    // Merger candidates and GW pairs; the bh* arrays are its per-hole inputs and outputs.
+    private final SweepAndPrune blackHolePairs = new SweepAndPrune();
+    private double[] bhX = new double[0];
+    private double[] bhY = new double[0];
+    private double[] bhRadius = new double[0];
+    private int[] bhNearest = new int[0];
+    private boolean[] bhMerged = new boolean[0];
+
+    private double[] bhAx = new double[0];
+    private double[] bhAy = new double[0];
+
+    private double[] energyScratch = new double[0];
+
+    private int lastStepKillCount = 0;
+
+    private final ParticleExecutor executor = new ParticleExecutor(Runtime.getRuntime().availableProcessors());
+
+    public SimulationEngine() { }
+
+    public List<BlackHole> getBlackHoles() { return blackHoles; }
+
+    
+
+public List<Particle> getParticles() { return particles.asList(); }
+
+    public ParticleStore getParticleStore() { return particles; }
+
+    public int getParticleCount() { return particles.size(); }
+
+    // Particles absorbed by a horizon or escaped past killDistance during the last update().
+    public int getLastStepKillCount() { return lastStepKillCount; }
+
+    public long getTotalKillCount() { return particles.removedTotal(); }
+
+    public PhysicsParams getParams() { return params; }
+
+    public void setRandomSeed(long seed) { random.setSeed(seed); }
+
+    public GravityModel getGravityModel() { return gravityModel; }
+
+    public void setGravityModel(GravityModel gravityModel) {
+        this.gravityModel = Objects.requireNonNull(gravityModel);
+        resetEnergyBaseline();
+    }
+
+    public Integrator getIntegrator() { return integrator; }
+
+    public HermiteBlackHoleIntegrator getBlackHoleIntegrator() { return hermite; }
+
+    public int getThreadCount() { return executor.getThreadCount(); }
+
+    public void setThreadCount(int threadCount) { executor.setThreadCount(threadCount); }
+
+    public ParticleExecutor getExecutor() { return executor; }
+
+    public BlackHoleSnapshot getBlackHoleSnapshot() { return blackHoleSnapshot; }
+
+    public BarnesHutTree getBlackHoleTree() { return blackHoleTree; }
+
+    public ParticleMesh getParticleMesh() { return particleMesh; }
+
+    public long getForceFieldVersion() { return forceFieldVersion; }
+
+    // Number of update() calls that reached the integrator.
+    public long getStepCount() { return stepCount; }
+
+    public void accelerations(double[] x, double[] y, double[] outAx, double[] outAy, int from, int to) {
+        if (blackHoleTree.isBuilt()) {
+            blackHoleTree.accelerationBatch(x, y, outAx, outAy, from, to, fieldKernel, params.maxAcceleration);
+        } else {
+            gravityModel.accelerationBatch(blackHoleSnapshot, x, y, outAx, outAy, from, to, params);
+        }
+        if (particleMesh.isSolved()) {
+            particleMesh.addAcceleration(x, y, outAx, outAy, from, to);
+        }
+    }
+
+    public void forEachParticleRange(ParticleExecutor.RangeTask task) {
+        executor.forRange(particles.size(), task);
+    }
+
+    public void setIntegrator(Integrator integrator) {
+        this.integrator = Objects.requireNonNull(integrator);
+        resetEnergyBaseline();
+    }
+
+    public void resetEnergyBaseline() {
+        this.initialTotalEnergy = Double.NaN;
+        this.energyFieldStep = -1;
+        this.meshStep = -1;
+    }
+
+    public boolean hasEnergyBaseline() {
+        return !Double.isNaN(initialTotalEnergy);
+    }
+
+    public void clearParticles() {
+        particles.clear();
+        resetEnergyBaseline();
+    }
+
+    public void clearBlackHoles() {
+        blackHoles.clear();
+        blackHoleTree.clear();
+        blackHoleSetVersion++;
+        resetEnergyBaseline();
+    }
+
+    public void addBlackHole(BlackHole bh) {
+        blackHoles.add(bh);
+        blackHoleTree.clear();
+        blackHoleSetVersion++;
+        resetEnergyBaseline();
+    }
+
+    public boolean removeBlackHoleById(String id) {
+        boolean removed = blackHoles.removeIf(bh -> bh.getId().equals(id));
+        if (removed) {
+            blackHoleTree.clear();
+            blackHoleSetVersion++;
+            resetEnergyBaseline();
+        }
+        return removed;
+    }
+
+    public BlackHole getBlackHoleById(String id) {
+        for (BlackHole bh : blackHoles) {
+            if (bh.getId().equals(id)) return bh;
+        }
+        return null;
+    }
+
+    public long getBlackHoleSetVersion() { return blackHoleSetVersion; }
+
+    public void addParticle(Particle p) {
+        particles.add(p);
+        resetEnergyBaseline();
+    }
+
+    public String nextBlackHoleId() {
+        return "BH-" + (blackHoles.size() + 1);
+    }
+
+    public BlackHole getNearestBlackHole(Vec2 worldPos) {
+        if (blackHoles.isEmpty()) return null;
+        BlackHole nearest = blackHoles.get(0);
+        double best = distSq(nearest.getPosition(), worldPos);
+        for (int i = 1; i < blackHoles.size(); i++) {
+            BlackHole bh = blackHoles.get(i);
+            double d = distSq(bh.getPosition(), worldPos);
+            if (d < best) {
+                best = d;
+                nearest = bh;
+            }
+        }
+        return nearest;
+    }
+
+    public double eventHorizonRadius(BlackHole bh) {
+        return bh.derived(params).captureRadius(gravityModel, bh, params);
+    }
+
+    public boolean isInsideAnyEventHorizon(Vec2 pos) {
+        return isInsideAnyEventHorizon(pos.x, pos.y);
+    }
+
+    // Same radius as eventHorizonRadius, which the derived cache keeps squared.
+    public boolean isInsideAnyEventHorizon(double x, double y) {
+        if (blackHoleTree.isBuilt()) return blackHoleTree.insideAnyCapture(x, y);
+        for (int j = 0, n = blackHoles.size(); j < n; j++) {
+            BlackHole bh = blackHoles.get(j);
+            DerivedQuantities d = bh.derived(params);
+            double dx = bh.getPosition().x - x;
+            double dy = bh.getPosition().y - y;
+            double r2 = dx * dx + dy * dy;
+            if (r2 < d.captureRadiusSq(gravityModel, bh, params)) return true;
+        }
+        return false;
+    }
+
+    // Distance to the nearest horizon surface as seen by the last step's snapshot (negative inside).
+    public double distanceToNearestHorizon(double x, double y) {
+        if (blackHoleTree.isBuilt()) return blackHoleTree.nearestCaptureDistance(x, y);
+        BlackHoleSnapshot s = blackHoleSnapshot;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0, n = s.size(); j < n; j++) {
+            double dx = s.x[j] - x;
+            double dy = s.y[j] - y;
+            best = Math.min(best, Math.sqrt(dx * dx + dy * dy) - Math.sqrt(s.captureSq[j]));
+        }
+        return best;
+    }
+
+    
+    public void addRandomBurst(Vec2 center, int count, double spawnRadius) {
+        for (int i = 0; i < count; i++) {
+            double a = random.nextDouble() * Math.PI * 2.0;
+            double r = spawnRadius * (0.25 + 0.75 * random.nextDouble());
+            Vec2 pos = new Vec2(center.x + Math.cos(a) * r, center.y + Math.sin(a) * r);
+
+            Vec2 vel = makeTangentialOrbitVelocity(pos, 0.65 + random.nextDouble() * 0.8);
+            int idx = particles.add(pos.x, pos.y, vel.x, vel.y);
+
+            double hue = 200 + random.nextDouble() * 60;
+            particles.color[idx] = Argb.hsb(hue, 0.35, 1.0, 0.9);
+            particles.radius[idx] = 1.8 + random.nextDouble() * 2.2;
+        }
+        resetEnergyBaseline();
+    }
+
+    
+    public Vec2 makeTangentialOrbitVelocity(Vec2 worldPos, double factor) {
+        BlackHole nearest = getNearestBlackHole(worldPos);
+        if (nearest == null) return new Vec2(0, 0);
+
+        double dx = nearest.getPosition().x - worldPos.x;
+        double dy = nearest.getPosition().y - worldPos.y;
+
+        double r = Math.sqrt(Math.max(1e-6, dx * dx + dy * dy));
+
+        
+        Vec2 acc = new Vec2();
+        gravityModel.acceleration(List.of(nearest), worldPos, new Vec2(0,0), params, acc);
+        double aMag = Math.sqrt(acc.x*acc.x + acc.y*acc.y);
+
+        
+        double v = Math.sqrt(Math.max(0.0, aMag * r));
+
+        
+        double tx = -dy / r;
+        double ty = dx / r;
+
+        return new Vec2(tx * v * factor, ty * v * factor);
+    }
+
+    
+    public void update(double dt, boolean pushTrail) {
+        lastStepKillCount = 0;
+        if (dt <= 0 || blackHoles.isEmpty()) return;
+        if (params.enableBHDynamics && blackHoles.size() > 1) {
+            stepBlackHoles(dt);
+            mergeBlackHolesIfNeeded();
+        }
+        refreshBlackHoleSnapshot(true);
+        refreshParticleMesh();
+        updateForceFieldVersion();
+        if (pushTrail) particles.prepareTrails();
+        long removedBefore = particles.removedTotal();
+        integrator.step(this, dt, pushTrail);
+        stepCount++;
+        energyFieldStep = stepCount;
+        energyFieldParams.copyFrom(params);
+        particles.removeDead();
+        lastStepKillCount = (int) (particles.removedTotal() - removedBefore);
+    }
+
+    public double gravitationalFieldAt(Vec2 worldPos) {
+        if (blackHoles.isEmpty()) return 0.0;
+        Vec2 a = new Vec2();
+        gravityModel.acceleration(blackHoles, worldPos, new Vec2(0,0), params, a);
+        return a.length();
+    }
+
+    
+    public double escapeVelocityAt(Vec2 worldPos) {
+        double phi = gravityModel.potential(blackHoles, worldPos, params);
+        return Math.sqrt(Math.max(0.0, 2.0 * Math.abs(phi)));
+    }
+
+    
+    
+    private boolean usesTree(int blackHoleCount) {
+        return BarnesHutTree.appliesTo(blackHoleCount, params);
+    }
+
+    // Models read a prepare() with an unchanged snapshot as one more step the holes stood still
+    // (ForceGridGravityModel starts its grid build on that), so outside update()'s own refresh the model
+    // is only prepared again for a changed snapshot, forces or model.
+    private void refreshBlackHoleSnapshot(boolean step) {
+        blackHoleSnapshot.update(blackHoles, gravityModel, params);
+        if (step || blackHoleSnapshot.version() != preparedVersion || gravityModel != preparedModel
+                || !preparedParams.sameForces(params)) {
+            gravityModel.prepare(blackHoleSnapshot, params);
+            preparedVersion = blackHoleSnapshot.version();
+            preparedModel = gravityModel;
+            preparedParams.copyFrom(params);
+        }
+        if (usesTree(blackHoleSnapshot.size())) {
+            blackHoleTree.build(blackHoleSnapshot, params.barnesHutTheta);
+        } else {
+            blackHoleTree.clear();
+        }
+    }
+
+    // A mesh totalEnergy solved after the last step already matches the particles, so update() reuses it.
+    private void refreshParticleMesh() {
+        if (!params.selfGravity) {
+            particleMesh.clear();
+            meshStep = -1;
+            return;
+        }
+        if (particleMesh.isSolved() && meshStep == stepCount && meshSnapshotVersion == blackHoleSnapshot.version()
+                && meshParticleCount == particles.size() && meshParams.sameForces(params) && sameMesh(meshParams)) {
+            return;
+        }
+        particleMesh.solve(particles, blackHoleSnapshot, params, executor);
+        meshStep = stepCount;
+        meshSnapshotVersion = blackHoleSnapshot.version();
+        meshParticleCount = particles.size();
+        meshParams.copyFrom(params);
+    }
+
+    private boolean sameMesh(PhysicsParams p) {
+        return p.meshSize == params.meshSize && p.meshMaxExtent == params.meshMaxExtent
+                && p.particleMass == params.particleMass;
+    }
+
+    private void updateForceFieldVersion() {
+        long snap = blackHoleSnapshot.version();
+        long revision = gravityModel.fieldRevision();
+        if (snap != fieldSnapshotVersion || particleMesh.isSolved() || gravityModel != fieldModel
+                || revision != fieldModelRevision || !fieldParams.sameForces(params)) {
+            forceFieldVersion++;
+            fieldSnapshotVersion = snap;
+            fieldModel = gravityModel;
+            fieldModelRevision = revision;
+            fieldParams.copyFrom(params);
+        }
+    }
+
+    private void stepBlackHoles(double dt) {
+        int n = blackHoles.size();
+        if (n < 2) return;
+
+        boolean hermiteStep = params.hermiteBlackHoles && !usesTree(n);
+        if (hermiteStep) {
+            hermite.step(blackHoles, params, dt);
+        } else if (usesTree(n)) {
+            kickBlackHolesTree(dt);
+        } else {
+            kickBlackHolesDirect(dt);
+        }
+
+        if (params.gwLossStrength > 0) {
+            applyGWRadiationReaction(dt);
+        }
+        if (hermiteStep) return;
+
+        for (BlackHole bh : blackHoles) {
+            bh.getPosition().x += bh.getVelocity().x * dt;
+            bh.getPosition().y += bh.getVelocity().y * dt;
+        }
+    }
+
+    private void kickBlackHolesDirect(double dt) {
+        int n = blackHoles.size();
+        Vec2[] acc = new Vec2[n];
+        for (int i = 0; i < n; i++) acc[i] = new Vec2(0, 0);
+
+        for (int i = 0; i < n; i++) {
+            BlackHole a = blackHoles.get(i);
+            for (int j = i + 1; j < n; j++) {
+                BlackHole b = blackHoles.get(j);
+
+                double dx = b.getPosition().x - a.getPosition().x;
+                double dy = b.getPosition().y - a.getPosition().y;
+                double r2 = dx * dx + dy * dy + params.softening * params.softening;
+                double r = Math.sqrt(r2);
+                double invR3 = 1.0 / (r2 * r);
+
+                double f = params.G * b.getMass() * invR3;
+                acc[i].x += dx * f;
+                acc[i].y += dy * f;
+
+                f = params.G * a.getMass() * invR3;
+                acc[j].x -= dx * f;
+                acc[j].y -= dy * f;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            BlackHole bh = blackHoles.get(i);
+            bh.getVelocity().x += acc[i].x * dt;
+            bh.getVelocity().y += acc[i].y * dt;
+        }
+    }
+
+    private void kickBlackHolesTree(double dt) {
+        int n = blackHoles.size();
+        refreshBlackHoleSnapshot(false);
+        if (bhAx.length < n) {
+            bhAx = new double[n];
+            bhAy = new double[n];
+        }
+        blackHoleTree.bodyAccelerations(bhAx, bhAy, pairKernel);
+
+        for (int i = 0; i < n; i++) {
+            BlackHole bh = blackHoles.get(i);
+            bh.getVelocity().x += bhAx[i] * dt;
+            bh.getVelocity().y += bhAy[i] * dt;
+        }
+    }
+
+    private void applyGWRadiationReaction(double dt) {
+        int n = blackHoles.size();
+        if (n == 2) {
+            applyGWRadiationReaction(blackHoles.get(0), blackHoles.get(1), dt);
+            return;
+        }
+
+        // Each hole radiates with its mutual nearest neighbour, so every hole is in at most one pair.
+        loadBlackHolePairs(false);
+        int pairs = blackHolePairs.mutualNearestPairs(bhNearest);
+        for (int k = 0; k < pairs; k++) {
+            applyGWRadiationReaction(blackHoles.get(blackHolePairs.pairA(k)), blackHoles.get(blackHolePairs.pairB(k)), dt);
+        }
+    }
+
+    private void applyGWRadiationReaction(BlackHole b1, BlackHole b2, double dt) {
+        Vec2 r12 = b2.getPosition().copy().sub(b1.getPosition());
+        double r = Math.max(1e-6, r12.length());
+
+        double m1 = b1.getMass();
+        double m2 = b2.getMass();
+        double mu = (m1 * m2) / Math.max(1e-9, (m1 + m2));
+
+        double daDt = -(64.0 / 5.0) * params.gwLossStrength
+                * Math.pow(params.G, 3.0) * m1 * m2 * (m1 + m2)
+                / (Math.pow(params.c, 5.0) * Math.pow(r, 3.0) + 1e-9);
+
+        double dr = daDt * dt;
+
+        Vec2 n = r12.copy().mul(1.0 / r);
+        double w1 = m2 / (m1 + m2);
+        double w2 = m1 / (m1 + m2);
+
+        b1.getPosition().x += n.x * (-dr) * w1 * 0.5;
+        b1.getPosition().y += n.y * (-dr) * w1 * 0.5;
+        b2.getPosition().x -= n.x * (-dr) * w2 * 0.5;
+        b2.getPosition().y -= n.y * (-dr) * w2 * 0.5;
+
+        Vec2 vrel = b2.getVelocity().copy().sub(b1.getVelocity());
+        double drag = Math.min(0.15, Math.abs(dr) / Math.max(1e-6, r));
+        b1.getVelocity().x += vrel.x * drag * w1 * 0.5;
+        b1.getVelocity().y += vrel.y * drag * w1 * 0.5;
+        b2.getVelocity().x -= vrel.x * drag * w2 * 0.5;
+        b2.getVelocity().y -= vrel.y * drag * w2 * 0.5;
+    }
+
+    private void loadBlackHolePairs(boolean captureRadius) {
+        int n = blackHoles.size();
+        if (bhX.length < n) {
+            int cap = Math.max(n, bhX.length * 2);
+            bhX = new double[cap];
+            bhY = new double[cap];
+            bhRadius = new double[cap];
+            bhNearest = new int[cap];
+            bhMerged = new boolean[cap];
+        }
+        for (int i = 0; i < n; i++) {
+            BlackHole bh = blackHoles.get(i);
+            bhX[i] = bh.getPosition().x;
+            bhY[i] = bh.getPosition().y;
+            bhRadius[i] = captureRadius ? eventHorizonRadius(bh) * 1.15 : 0.0;
+        }
+        blackHolePairs.update(bhX, bhY, bhRadius, n);
+    }
+
+    private void mergeBlackHolesIfNeeded() {
+        boolean merged = false;
+        // A merged hole has a larger horizon and may now overlap a third one, so repeat until nothing overlaps.
+        while (blackHoles.size() >= 2 && mergeOverlappingPairs()) {
+            merged = true;
+        }
+        if (!merged) return;
+
+        blackHoleTree.clear();
+        blackHoleSetVersion++;
+        resetEnergyBaseline();
+    }
+
+    // Merges each pair with d <= 1.15 (ra + rb), every hole at most once; false if none overlapped.
+    private boolean mergeOverlappingPairs() {
+        loadBlackHolePairs(true);
+        int pairs = blackHolePairs.overlaps();
+        if (pairs == 0) return false;
+
+        Arrays.fill(bhMerged, 0, blackHoles.size(), false);
+        for (int k = 0; k < pairs; k++) {
+            int i = blackHolePairs.pairA(k);
+            int j = blackHolePairs.pairB(k);
+            if (bhMerged[i] || bhMerged[j]) continue;
+            bhMerged[i] = true;
+            bhMerged[j] = true;
+
+            BlackHole a = blackHoles.get(i);
+            BlackHole b = blackHoles.get(j);
+            int keep = a.getMass() >= b.getMass() ? i : j;
+            blackHoles.set(keep, merge(a, b));
+            blackHoles.set(keep == i ? j : i, null);
+        }
+        blackHoles.removeIf(Objects::isNull);
+        return true;
+    }
+
+    private BlackHole merge(BlackHole a, BlackHole b) {
+        double m1 = a.getMass();
+        double m2 = b.getMass();
+        double frac = Relativity.gwMassLossFraction(m1, m2);
+        double dm = frac * (m1 + m2);
+        double mf = Math.max(1e-9, (m1 + m2) - dm);
+
+        double px = m1 * a.getVelocity().x + m2 * b.getVelocity().x;
+        double py = m1 * a.getVelocity().y + m2 * b.getVelocity().y;
+
+        Vec2 pos = new Vec2(
+                (m1 * a.getPosition().x + m2 * b.getPosition().x) / (m1 + m2),
+                (m1 * a.getPosition().y + m2 * b.getPosition().y) / (m1 + m2)
+        );
+
+        Vec2 vel = new Vec2(px / mf, py / mf);
+
+        double spin = Math.min(0.999, (m1 * a.getSpin() + m2 * b.getSpin()) / (m1 + m2) + 0.35 * Relativity.symmetricMassRatio(m1, m2));
+
+        return new BlackHole(nextMergedId(a, b), pos, vel, mf, spin);
+    }
+
+    // "BH-MERGED", then "BH-MERGED-2", ... for later mergers while the earlier ones are still around.
+    // The two holes being merged are about to leave the list, so their ids are free again.
+    private String nextMergedId(BlackHole a, BlackHole b) {
+        for (int k = 1; ; k++) {
+            String id = k == 1 ? "BH-MERGED" : "BH-MERGED-" + k;
+            boolean taken = false;
+            for (BlackHole bh : blackHoles) {
+                if (bh != null && bh != a && bh != b && bh.getId().equals(id)) {
+                    taken = true;
+                    break;
+                }
+            }
+            if (!taken) return id;
+        }
+    }
+
+public double totalEnergy() {
+        if (blackHoles.isEmpty()) return 0.0;
+
+        if (!energyFieldCurrent()) {
+            refreshBlackHoleSnapshot(false);
+            energyFieldStep = stepCount;
+            energyFieldParams.copyFrom(params);
+        }
+        // Always for the current positions, so every sample, baseline included, sees the same convention.
+        refreshParticleMesh();
+
+        ParticleStore ps = particles;
+        int n = ps.size();
+        if (energyScratch.length < n) energyScratch = new double[ps.capacity()];
+        double[] phi = energyScratch;
+        if (blackHoleTree.isBuilt()) {
+            blackHoleTree.potentialBatch(ps.x, ps.y, phi, 0, n, potentialKernel);
+        } else {
+            gravityModel.potentialBatch(blackHoleSnapshot, ps.x, ps.y, phi, 0, n, params);
+        }
+        if (particleMesh.isSolved()) {
+            // Half, so each particle pair is counted once.
+            particleMesh.addPotential(ps.x, ps.y, phi, 0, n, 0.5);
+        }
+
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (!ps.isAlive(i)) continue;
+
+            double v2 = ps.vx[i] * ps.vx[i] + ps.vy[i] * ps.vy[i];
+            total += 0.5 * v2 + phi[i];
+        }
+        return total;
+    }
+
+    private boolean energyFieldCurrent() {
+        if (energyFieldStep != stepCount || gravityModel != preparedModel) return false;
+        PhysicsParams p = energyFieldParams;
+        if (!p.sameForces(params)) return false;
+        // Holes dragged between steps change the snapshot without resetting the baseline.
+        long version = blackHoleSnapshot.version();
+        blackHoleSnapshot.update(blackHoles, gravityModel, params);
+        return blackHoleSnapshot.version() == version;
+    }
+
+    public double energyDriftRatio() {
+        return energyDriftRatio(totalEnergy());
+    }
+
+    // Drift of an energy the caller already has from totalEnergy(); the first call sets the baseline.
+    public double energyDriftRatio(double e) {
+        if (Double.isNaN(initialTotalEnergy)) {
+            initialTotalEnergy = e;
+            return 0.0;
+        }
+        if (Math.abs(initialTotalEnergy) < 1e-9) return 0.0;
+        return (e - initialTotalEnergy) / initialTotalEnergy;
+    }
+
+    private static double distSq(Vec2 a, Vec2 b) {
+        double dx = a.x - b.x;
+        double dy = a.y - b.y;
+        return dx*dx + dy*dy;
+    }
+}
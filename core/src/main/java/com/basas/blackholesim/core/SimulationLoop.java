@@ -0,0 +1,185 @@
+package com.basas.blackholesim.core;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/*
+ * Runs SimulationEngine on its own thread with a fixed-dt accumulator, so the
+ * step size no longer depends on the frame rate and physics cost no longer
+ * stalls the FX thread.
+ *
+ * The engine is owned by the simulation thread: other threads mutate it only
+ * through submit(), whose commands are applied between steps, and read it only
+ * through snapshots. Snapshots rotate through three buffers (writer, exchange
+ * slot, reader) so neither side ever waits on the other.
+ */
+public class SimulationLoop {
+
+    private static final long PUBLISH_PERIOD_NS = 1_000_000_000L / 120;
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    // The HUD drift readout needs a full potential pass; recompute it at about 4 Hz, not per publish.
+    private static final long DRIFT_PERIOD_NS = 250_000_000L;
+
+    private final SimulationEngine engine;
+    private record Command(Consumer<SimulationEngine> action, CompletableFuture<Void> done) { }
+
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+
+    private final AtomicReference<RenderSnapshot> exchange = new AtomicReference<>(new RenderSnapshot());
+    private RenderSnapshot back = new RenderSnapshot();
+    private RenderSnapshot front = new RenderSnapshot();
+    private long published = 0;
+
+    private volatile double fixedDt = 1.0 / 120.0;
+    private volatile double speed = 1.0;
+    private volatile boolean paused = false;
+    private volatile boolean pushTrails = true;
+    private volatile int trailPointInterval = 2;
+    private volatile int maxStepsPerTick = 12;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    private double simTime = 0.0;
+    private long stepCount = 0;
+
+    private double energyDrift = 0.0;
+    private long driftSampledNs = 0;
+
+    public SimulationLoop(SimulationEngine engine) {
+        this.engine = engine;
+    }
+
+    public SimulationEngine getEngine() { return engine; }
+
+    public double getFixedDt() { return fixedDt; }
+
+    public void setFixedDt(double fixedDt) { this.fixedDt = Math.max(1e-5, fixedDt); }
+
+    public double getSpeed() { return speed; }
+
+    public void setSpeed(double speed) { this.speed = Math.max(0.0, speed); }
+
+    public boolean isPaused() { return paused; }
+
+    public void setPaused(boolean paused) { this.paused = paused; }
+
+    public boolean isPushTrails() { return pushTrails; }
+
+    public void setPushTrails(boolean pushTrails) { this.pushTrails = pushTrails; }
+
+    public void setTrailPointInterval(int steps) { this.trailPointInterval = Math.max(1, steps); }
+
+    public void setMaxStepsPerTick(int maxStepsPerTick) { this.maxStepsPerTick = Math.max(1, maxStepsPerTick); }
+
+    // Completes once the command has run on the simulation thread, exceptionally if it threw.
+    public CompletableFuture<Void> submit(Consumer<SimulationEngine> command) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        commands.add(new Command(command, done));
+        return done;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    // Reader side: returns the newest published snapshot, owned by the caller until the next call.
+    public RenderSnapshot acquireSnapshot() {
+        RenderSnapshot latest = exchange.get();
+        if (latest != null && latest.sequence > front.sequence) {
+            front = exchange.getAndSet(front);
+        }
+        return front;
+    }
+
+    private void run() {
+        long last = System.nanoTime();
+        double accumulator = 0.0;
+
+        while (running) {
+            long tickStart = System.nanoTime();
+            double frame = Math.min(MAX_FRAME_SECONDS, (tickStart - last) / 1_000_000_000.0);
+            last = tickStart;
+
+            boolean dirty = drainCommands();
+
+            double dt = fixedDt;
+            if (!paused) {
+                accumulator += frame * speed;
+                int steps = (int) Math.min(maxStepsPerTick, Math.floor(accumulator / dt));
+                if (steps > 0) {
+                    advance(steps);
+                    accumulator -= steps * dt;
+                    dirty = true;
+                }
+                // Physics can't keep up: drop the backlog instead of spiralling.
+                if (accumulator > dt * maxStepsPerTick) accumulator = 0.0;
+            } else {
+                accumulator = 0.0;
+            }
+
+            if (dirty || published == 0) publish();
+
+            long sleep = PUBLISH_PERIOD_NS - (System.nanoTime() - tickStart);
+            if (sleep > 0) LockSupport.parkNanos(sleep);
+        }
+    }
+
+    private boolean drainCommands() {
+        boolean any = false;
+        Command c;
+        while ((c = commands.poll()) != null) {
+            try {
+                c.action().accept(engine);
+                c.done().complete(null);
+            } catch (RuntimeException e) {
+                c.done().completeExceptionally(e);
+            }
+            any = true;
+        }
+        return any;
+    }
+
+    private void advance(int steps) {
+        double dt = fixedDt;
+        int interval = trailPointInterval;
+        for (int s = 0; s < steps; s++) {
+            boolean trail = pushTrails && stepCount % interval == 0;
+            engine.update(dt, trail);
+            simTime += dt;
+            stepCount++;
+        }
+    }
+
+    private void publish() {
+        long now = System.nanoTime();
+        // A reset baseline is taken right away, so the drift is measured from the edited state.
+        if (published == 0 || !engine.hasEnergyBaseline() || now - driftSampledNs >= DRIFT_PERIOD_NS) {
+            energyDrift = engine.energyDriftRatio();
+            driftSampledNs = now;
+        }
+        back.capture(engine, pushTrails, simTime, stepCount, energyDrift);
+        back.sequence = ++published;
+        back = exchange.getAndSet(back);
+    }
+}
@@ -1,6 +1,8 @@
 package com.basas.blackholesim.core.entities;
 
 import com.basas.blackholesim.core.math.Vec2;
+import com.basas.blackholesim.core.physics.DerivedQuantities;
+import com.basas.blackholesim.core.physics.PhysicsParams;
 
 public class BlackHole {
     private final String id;
@@ -8,6 +10,7 @@ public class BlackHole {
     private final Vec2 velocity;
     private double mass;
     private double spin;
+    private final DerivedQuantities derived = new DerivedQuantities();
 
     public BlackHole(String id, Vec2 position, double mass) {
         this(id, position, new Vec2(0, 0), mass, 0.0);
@@ -34,4 +37,10 @@ public class BlackHole {
     public double getSpin() { return spin; }
 
     public void setSpin(double spin) { this.spin = spin; }
+
+    // Horizon, ISCO, rg etc. for the given params, recomputed only when mass, spin, G, c or the mode changed.
+    public DerivedQuantities derived(PhysicsParams params) {
+        derived.refresh(mass, spin, params);
+        return derived;
+    }
 }
@@ -0,0 +1,102 @@
+package com.basas.blackholesim.core.entities;
+
+import com.basas.blackholesim.core.math.Vec2;
+
+/*
+ * View over one ParticleStore slot. A particle created with the public
+ * constructor owns a private single-slot store until it is added to the engine;
+ * views obtained from the engine's store are only valid until the next step.
+ */
+public class Particle {
+    private final ParticleStore store;
+    private final int index;
+
+    public Particle(Vec2 position, Vec2 velocity) {
+        this.store = new ParticleStore(1);
+        this.index = store.add(position.x, position.y, velocity.x, velocity.y);
+    }
+
+    Particle(ParticleStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    ParticleStore store() { return store; }
+
+    int index() { return index; }
+
+    public Vec2 getPosition() { return new Vec2(store.x[index], store.y[index]); }
+
+    public void setPosition(double x, double y) {
+        store.x[index] = x;
+        store.y[index] = y;
+        store.setFlag(index, ParticleStore.FLAG_FORCE_CACHED, false);
+    }
+
+    public Vec2 getVelocity() { return new Vec2(store.vx[index], store.vy[index]); }
+
+    public void setVelocity(double vx, double vy) {
+        store.vx[index] = vx;
+        store.vy[index] = vy;
+    }
+
+    public double getRadius() { return store.radius[index]; }
+
+    public void setRadius(double radius) { store.radius[index] = radius; }
+
+    public int getColor() { return store.color[index]; }
+
+    public void setColor(int argb) { store.color[index] = argb; }
+
+    public int getTrailLength() { return store.trailLength(index); }
+
+    // k-th trail point, oldest first.
+    public Vec2 getTrailPoint(int k) {
+        int at = store.trailIndex(index, k);
+        return new Vec2(store.trails.x[at], store.trails.y[at]);
+    }
+
+    public int getMaxTrailPoints() { return store.maxTrailPoints[index]; }
+
+    public void setMaxTrailPoints(int maxTrailPoints) { store.setMaxTrailPoints(index, maxTrailPoints); }
+
+    public boolean isAlive() { return store.isAlive(index); }
+
+    public void kill() { store.kill(index); }
+
+    public boolean isPhoton() { return store.hasFlag(index, ParticleStore.FLAG_PHOTON); }
+
+    public void setPhoton(boolean photon) { store.setFlag(index, ParticleStore.FLAG_PHOTON, photon); }
+
+    public boolean isGeodesic() { return store.hasFlag(index, ParticleStore.FLAG_GEODESIC); }
+
+    public void setGeodesic(boolean geodesic) { store.setFlag(index, ParticleStore.FLAG_GEODESIC, geodesic); }
+
+    public String getCentralBhId() { return store.centralBhId[index]; }
+
+    public void setCentralBhId(String centralBhId) { store.centralBhId[index] = centralBhId; }
+
+    public double getE() { return store.E[index]; }
+
+    public void setE(double e) { store.E[index] = e; }
+
+    public double getL() { return store.L[index]; }
+
+    public void setL(double l) { store.L[index] = l; }
+
+    public double getR() { return store.r[index]; }
+
+    public void setR(double r) { store.r[index] = r; }
+
+    public double getPhi() { return store.phi[index]; }
+
+    public void setPhi(double phi) { store.phi[index] = phi; }
+
+    public double getPr() { return store.pr[index]; }
+
+    public void setPr(double pr) { store.pr[index] = pr; }
+
+    public void clearTrail() { store.clearTrail(index); }
+
+    public void pushTrailPoint() { store.pushTrailPoint(index); }
+}
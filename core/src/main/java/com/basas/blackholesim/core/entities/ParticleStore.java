@@ -0,0 +1,362 @@
+package com.basas.blackholesim.core.entities;
+
+import com.basas.blackholesim.core.math.Argb;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Structure-of-arrays particle storage. Integrators and the renderer index the
+ * primitive columns directly; Particle is only a view over one slot.
+ * Column arrays are replaced when the store grows, so re-read them after add().
+ */
+public class ParticleStore {
+
+    public static final byte FLAG_ALIVE = 1;
+    public static final byte FLAG_PHOTON = 2;
+    public static final byte FLAG_GEODESIC = 4;
+    // ax/ay hold the acceleration at the current x/y (see SimulationEngine.getForceFieldVersion).
+    public static final byte FLAG_FORCE_CACHED = 8;
+
+    public static final double DEFAULT_RADIUS = 2.3;
+    public static final int DEFAULT_COLOR = Argb.rgb(180, 220, 255, 0.92);
+    public static final int DEFAULT_MAX_TRAIL_POINTS = 120;
+
+    private int size = 0;
+
+    // Set by kill(); lets removeDead() skip the sweep on the common no-death step. Racy writes all store true.
+    private boolean hasDead = false;
+    private long removedTotal = 0;
+
+    public double[] x;
+    public double[] y;
+    public double[] vx;
+    public double[] vy;
+    public double[] radius;
+    public byte[] flags;
+
+    public double[] ax;
+    public double[] ay;
+
+    // Last accepted step size and its scaled error for adaptive integrators (0 = none yet).
+    public double[] stepSize;
+    public double[] stepError;
+
+    public double[] E;
+    public double[] L;
+    public double[] r;
+    public double[] phi;
+    public double[] pr;
+    public String[] centralBhId;
+
+    public int[] color;
+    public int[] maxTrailPoints;
+
+    // Trail ring buffers: slice offset in the arena (-1 = none yet), slice size, next write slot, points stored.
+    public final TrailArena trails = new TrailArena();
+    public int[] trailOffset;
+    public int[] trailCapacity;
+    public int[] trailHead;
+    public int[] trailCount;
+
+    private final List<Particle> view = new AbstractList<>() {
+        @Override
+        public Particle get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+            return new Particle(ParticleStore.this, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    public ParticleStore() {
+        this(256);
+    }
+
+    public ParticleStore(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        radius = new double[capacity];
+        flags = new byte[capacity];
+        ax = new double[capacity];
+        ay = new double[capacity];
+        stepSize = new double[capacity];
+        stepError = new double[capacity];
+        E = new double[capacity];
+        L = new double[capacity];
+        r = new double[capacity];
+        phi = new double[capacity];
+        pr = new double[capacity];
+        centralBhId = new String[capacity];
+        color = new int[capacity];
+        maxTrailPoints = new int[capacity];
+        trailOffset = new int[capacity];
+        trailCapacity = new int[capacity];
+        trailHead = new int[capacity];
+        trailCount = new int[capacity];
+    }
+
+    public int size() { return size; }
+
+    public int capacity() { return x.length; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public List<Particle> asList() { return view; }
+
+    public Particle get(int i) { return view.get(i); }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+        int n = Math.max(capacity, x.length + (x.length >> 1));
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        vx = Arrays.copyOf(vx, n);
+        vy = Arrays.copyOf(vy, n);
+        radius = Arrays.copyOf(radius, n);
+        flags = Arrays.copyOf(flags, n);
+        ax = Arrays.copyOf(ax, n);
+        ay = Arrays.copyOf(ay, n);
+        stepSize = Arrays.copyOf(stepSize, n);
+        stepError = Arrays.copyOf(stepError, n);
+        E = Arrays.copyOf(E, n);
+        L = Arrays.copyOf(L, n);
+        r = Arrays.copyOf(r, n);
+        phi = Arrays.copyOf(phi, n);
+        pr = Arrays.copyOf(pr, n);
+        centralBhId = Arrays.copyOf(centralBhId, n);
+        color = Arrays.copyOf(color, n);
+        maxTrailPoints = Arrays.copyOf(maxTrailPoints, n);
+        trailOffset = Arrays.copyOf(trailOffset, n);
+        trailCapacity = Arrays.copyOf(trailCapacity, n);
+        trailHead = Arrays.copyOf(trailHead, n);
+        trailCount = Arrays.copyOf(trailCount, n);
+    }
+
+    public int add(double px, double py, double pvx, double pvy) {
+        ensureCapacity(size + 1);
+        int i = size++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        radius[i] = DEFAULT_RADIUS;
+        flags[i] = FLAG_ALIVE;
+        stepSize[i] = 0.0;
+        stepError[i] = 0.0;
+        E[i] = 1.0;
+        L[i] = 0.0;
+        r[i] = 0.0;
+        phi[i] = 0.0;
+        pr[i] = 0.0;
+        centralBhId[i] = null;
+        color[i] = DEFAULT_COLOR;
+        maxTrailPoints[i] = DEFAULT_MAX_TRAIL_POINTS;
+        trailOffset[i] = -1;
+        trailCapacity[i] = 0;
+        trailHead[i] = 0;
+        trailCount[i] = 0;
+        return i;
+    }
+
+    public int add(Particle p) {
+        ParticleStore src = p.store();
+        int s = p.index();
+        int i = add(src.x[s], src.y[s], src.vx[s], src.vy[s]);
+        radius[i] = src.radius[s];
+        flags[i] = (byte) (src.flags[s] & ~FLAG_FORCE_CACHED);
+        E[i] = src.E[s];
+        L[i] = src.L[s];
+        r[i] = src.r[s];
+        phi[i] = src.phi[s];
+        pr[i] = src.pr[s];
+        centralBhId[i] = src.centralBhId[s];
+        color[i] = src.color[s];
+        maxTrailPoints[i] = src.maxTrailPoints[s];
+        copyTrail(src, s, i);
+        if (!isAlive(i)) hasDead = true;
+        return i;
+    }
+
+    public boolean isAlive(int i) { return (flags[i] & FLAG_ALIVE) != 0; }
+
+    public void kill(int i) {
+        flags[i] &= ~FLAG_ALIVE;
+        hasDead = true;
+    }
+
+    public boolean hasFlag(int i, byte flag) { return (flags[i] & flag) != 0; }
+
+    public void setFlag(int i, byte flag, boolean on) {
+        if (on) flags[i] |= flag;
+        else flags[i] &= ~flag;
+        if (!on && (flag & FLAG_ALIVE) != 0) hasDead = true;
+    }
+
+    // Safe from particle workers once prepareTrails() has run; otherwise allocates the slice lazily.
+    public void pushTrailPoint(int i) {
+        int cap = trailCapacity[i];
+        if (cap != maxTrailPoints[i] || trailOffset[i] < 0) {
+            if (maxTrailPoints[i] <= 0) return;
+            resizeTrail(i, maxTrailPoints[i]);
+            cap = trailCapacity[i];
+        }
+
+        int h = trailHead[i];
+        int at = trailOffset[i] + h;
+        trails.x[at] = (float) x[i];
+        trails.y[at] = (float) y[i];
+        trailHead[i] = h + 1 == cap ? 0 : h + 1;
+        if (trailCount[i] < cap) trailCount[i]++;
+    }
+
+    // Allocates missing or resized trail slices up front, so workers never touch the arena layout.
+    public void prepareTrails() {
+        for (int i = 0; i < size; i++) {
+            int max = maxTrailPoints[i];
+            if (max > 0 && (trailOffset[i] < 0 || trailCapacity[i] != max) && isAlive(i)) resizeTrail(i, max);
+        }
+    }
+
+    public int trailLength(int i) { return trailCount[i]; }
+
+    // Arena index of the k-th stored point of particle i, oldest first.
+    public int trailIndex(int i, int k) {
+        int cap = trailCapacity[i];
+        int j = trailHead[i] - trailCount[i] + k;
+        if (j < 0) j += cap;
+        return trailOffset[i] + j;
+    }
+
+    public void setMaxTrailPoints(int i, int max) {
+        maxTrailPoints[i] = max;
+        if (trailOffset[i] < 0) return;
+        if (max <= 0) releaseTrail(i);
+        else if (max != trailCapacity[i]) resizeTrail(i, max);
+    }
+
+    public void clearTrail(int i) {
+        trailHead[i] = 0;
+        trailCount[i] = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(centralBhId, 0, size, null);
+        Arrays.fill(color, 0, size, 0);
+        trails.clear();
+        size = 0;
+        hasDead = false;
+    }
+
+    /*
+     * Drops every killed particle in one sweep. Each hole is filled with the
+     * last live particle (swap-remove), so the cost is one pass over the flags
+     * plus one move per removal; particle order is not preserved.
+     */
+    public int removeDead() {
+        if (!hasDead) return 0;
+        hasDead = false;
+
+        int n = size;
+        int i = 0;
+        while (i < n) {
+            if (isAlive(i)) {
+                i++;
+                continue;
+            }
+            releaseTrail(i);
+            int last = --n;
+            while (last > i && !isAlive(last)) {
+                releaseTrail(last);
+                last = --n;
+            }
+            if (last > i) {
+                move(last, i);
+                i++;
+            }
+        }
+
+        int removed = size - n;
+        Arrays.fill(centralBhId, n, size, null);
+        Arrays.fill(color, n, size, 0);
+        size = n;
+        removedTotal += removed;
+        return removed;
+    }
+
+    // Particles dropped by removeDead() since the store was created.
+    public long removedTotal() { return removedTotal; }
+
+    // Moves particle i to a slice of the given size, keeping its newest points.
+    private void resizeTrail(int i, int cap) {
+        int keep = Math.min(trailCount[i], cap);
+        int offset = trails.allocate(cap);
+        for (int k = 0; k < keep; k++) {
+            int from = trailIndex(i, trailCount[i] - keep + k);
+            trails.x[offset + k] = trails.x[from];
+            trails.y[offset + k] = trails.y[from];
+        }
+        releaseTrail(i);
+        trailOffset[i] = offset;
+        trailCapacity[i] = cap;
+        trailHead[i] = keep == cap ? 0 : keep;
+        trailCount[i] = keep;
+    }
+
+    private void releaseTrail(int i) {
+        if (trailOffset[i] >= 0) trails.release(trailOffset[i], trailCapacity[i]);
+        trailOffset[i] = -1;
+        trailCapacity[i] = 0;
+        trailHead[i] = 0;
+        trailCount[i] = 0;
+    }
+
+    private void copyTrail(ParticleStore src, int s, int i) {
+        int n = Math.min(src.trailCount[s], maxTrailPoints[i]);
+        if (n <= 0) return;
+        resizeTrail(i, maxTrailPoints[i]);
+        for (int k = src.trailCount[s] - n; k < src.trailCount[s]; k++) {
+            int from = src.trailIndex(s, k);
+            int at = trailOffset[i] + trailHead[i];
+            trails.x[at] = src.trails.x[from];
+            trails.y[at] = src.trails.y[from];
+            trailHead[i] = trailHead[i] + 1 == trailCapacity[i] ? 0 : trailHead[i] + 1;
+            trailCount[i]++;
+        }
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        radius[to] = radius[from];
+        flags[to] = flags[from];
+        ax[to] = ax[from];
+        ay[to] = ay[from];
+        stepSize[to] = stepSize[from];
+        stepError[to] = stepError[from];
+        E[to] = E[from];
+        L[to] = L[from];
+        r[to] = r[from];
+        phi[to] = phi[from];
+        pr[to] = pr[from];
+        centralBhId[to] = centralBhId[from];
+        color[to] = color[from];
+        maxTrailPoints[to] = maxTrailPoints[from];
+        trailOffset[to] = trailOffset[from];
+        trailCapacity[to] = trailCapacity[from];
+        trailHead[to] = trailHead[from];
+        trailCount[to] = trailCount[from];
+    }
+}
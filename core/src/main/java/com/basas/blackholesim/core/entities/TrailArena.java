@@ -0,0 +1,60 @@
+package com.basas.blackholesim.core.entities;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Shared float storage for particle trails. Each particle owns a fixed-size
+ * slice used as a ring buffer (see ParticleStore.pushTrailPoint); released
+ * slices go to a free list keyed by size, since particles almost always use
+ * one of a handful of trail lengths. Floats are plenty for screen-space trails
+ * and halve the footprint.
+ *
+ * Not thread-safe: slices are allocated and released on the simulation
+ * thread only, workers just write into slices they already own.
+ */
+public final class TrailArena {
+
+    public float[] x = new float[0];
+    public float[] y = new float[0];
+
+    private int top = 0;
+    private final Map<Integer, FreeSlices> free = new HashMap<>();
+
+    // Number of floats in use per axis, including released slices.
+    public int top() { return top; }
+
+    public int allocate(int capacity) {
+        FreeSlices list = free.get(capacity);
+        if (list != null && list.size > 0) return list.offsets[--list.size];
+
+        if (top + capacity > x.length) {
+            int n = Math.max(top + capacity, x.length + (x.length >> 1) + 1024);
+            x = Arrays.copyOf(x, n);
+            y = Arrays.copyOf(y, n);
+        }
+        int offset = top;
+        top += capacity;
+        return offset;
+    }
+
+    public void release(int offset, int capacity) {
+        free.computeIfAbsent(capacity, c -> new FreeSlices()).push(offset);
+    }
+
+    public void clear() {
+        top = 0;
+        free.clear();
+    }
+
+    private static final class FreeSlices {
+        int[] offsets = new int[16];
+        int size = 0;
+
+        void push(int offset) {
+            if (size == offsets.length) offsets = Arrays.copyOf(offsets, size * 2);
+            offsets[size++] = offset;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.basas.blackholesim.core.math;
+
+/*
+ * Packed 0xAARRGGBB colors, so the core can carry particle colors without
+ * depending on a UI toolkit. rgb() and hsb() follow the JavaFX Color factory
+ * methods of the same name.
+ */
+public final class Argb {
+
+    private Argb() { }
+
+    public static int rgb(int red, int green, int blue, double opacity) {
+        return pack(channel(opacity), red, green, blue);
+    }
+
+    public static int hsb(double hue, double saturation, double brightness, double opacity) {
+        double h = ((hue % 360) + 360) % 360 / 360.0;
+        double r, g, b;
+        if (saturation == 0) {
+            r = g = b = brightness;
+        } else {
+            double sector = (h - Math.floor(h)) * 6.0;
+            double f = sector - Math.floor(sector);
+            double p = brightness * (1.0 - saturation);
+            double q = brightness * (1.0 - saturation * f);
+            double t = brightness * (1.0 - (saturation * (1.0 - f)));
+            switch ((int) sector) {
+                case 0 -> { r = brightness; g = t; b = p; }
+                case 1 -> { r = q; g = brightness; b = p; }
+                case 2 -> { r = p; g = brightness; b = t; }
+                case 3 -> { r = p; g = q; b = brightness; }
+                case 4 -> { r = t; g = p; b = brightness; }
+                default -> { r = brightness; g = p; b = q; }
+            }
+        }
+        return pack(channel(opacity), channel(r), channel(g), channel(b));
+    }
+
+    public static int alpha(int argb) { return argb >>> 24; }
+
+    public static int red(int argb) { return (argb >> 16) & 0xFF; }
+
+    public static int green(int argb) { return (argb >> 8) & 0xFF; }
+
+    public static int blue(int argb) { return argb & 0xFF; }
+
+    public static double opacity(int argb) { return alpha(argb) / 255.0; }
+
+    private static int pack(int a, int r, int g, int b) {
+        return (a << 24) | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+    }
+
+    private static int channel(double v) {
+        return (int) Math.round(Math.max(0.0, Math.min(1.0, v)) * 255.0);
+    }
+}
@@ -0,0 +1,399 @@
+package com.basas.blackholesim.core.physics;
+
+import java.util.Arrays;
+
+/*
+ * Barnes-Hut quadtree over a BlackHoleSnapshot for scenes with many holes.
+ * A cell that looks small from the evaluation point (size / distance < theta)
+ * acts as one point mass at its centre of mass; every other cell is opened down
+ * to its leaf, and leaves sum their holes exactly, so the near field (and with it
+ * the Paczynski-Wiita term around close holes) is never approximated.
+ *
+ * Built once per step on the engine thread; queries are read-only and may run
+ * from any number of particle workers.
+ */
+public final class BarnesHutTree {
+
+    /*
+     * Point-mass term for one hole (gm = G*M, rs = 2GM/c^2) or one aggregated cell
+     * (summed gm, mass-weighted mean rs, which keeps the 1/r^3 term of the PW expansion).
+     */
+    public interface Kernel {
+        double eval(double gm, double rs, double r);
+    }
+
+    private static final int LEAF_SIZE = 4;
+    private static final int MAX_DEPTH = 24;
+    private static final int STACK_SIZE = 4 * (MAX_DEPTH + 2);
+
+    // Cells are opened when the point is closer than this many of their largest capture radius, whatever theta says.
+    private static final double NEAR_FIELD_RS = 8.0;
+
+    private int bodyCount = 0;
+    private int[] order = new int[0];
+    private double[] bx = new double[0];
+    private double[] by = new double[0];
+    private double[] bgm = new double[0];
+    private double[] brs = new double[0];
+    private double[] bcapSq = new double[0];
+
+    private int nodeCount = 0;
+    private double[] cx = new double[0];
+    private double[] cy = new double[0];
+    private double[] half = new double[0];
+    private double[] comX = new double[0];
+    private double[] comY = new double[0];
+    private double[] gm = new double[0];
+    private double[] rs = new double[0];
+    private double[] maxCap = new double[0];
+    private int[] child = new int[0];
+    private int[] start = new int[0];
+    private int[] end = new int[0];
+
+    private double theta2 = 0.25;
+
+    private static final class Walker {
+        final int[] stack = new int[STACK_SIZE];
+        double ax, ay;
+    }
+
+    private final ThreadLocal<Walker> walkers = ThreadLocal.withInitial(Walker::new);
+
+    // Whether the engine answers particle forces from the tree for this many holes.
+    public static boolean appliesTo(int blackHoleCount, PhysicsParams params) {
+        return params.barnesHutTheta > 0 && blackHoleCount >= Math.max(2, params.barnesHutMinBlackHoles);
+    }
+
+    public boolean isBuilt() { return bodyCount > 0; }
+
+    public int nodeCount() { return nodeCount; }
+
+    public void clear() {
+        bodyCount = 0;
+        nodeCount = 0;
+    }
+
+    public void build(BlackHoleSnapshot s, double theta) {
+        int n = s.size();
+        theta2 = theta * theta;
+        bodyCount = n;
+        nodeCount = 0;
+        if (n == 0) return;
+
+        if (order.length < n) {
+            int cap = Math.max(n, order.length * 2);
+            order = new int[cap];
+            bx = new double[cap];
+            by = new double[cap];
+            bgm = new double[cap];
+            brs = new double[cap];
+            bcapSq = new double[cap];
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < n; j++) {
+            order[j] = j;
+            bx[j] = s.x[j];
+            by[j] = s.y[j];
+            bgm[j] = s.gm[j];
+            brs[j] = s.rs[j];
+            bcapSq[j] = s.captureSq[j];
+            minX = Math.min(minX, bx[j]);
+            minY = Math.min(minY, by[j]);
+            maxX = Math.max(maxX, bx[j]);
+            maxY = Math.max(maxY, by[j]);
+        }
+
+        double h = 0.5 * Math.max(maxX - minX, maxY - minY);
+        h = h * (1.0 + 1e-9) + 1e-9;
+
+        ensureNodes(1);
+        nodeCount = 1;
+        buildNode(0, 0, n, 0.5 * (minX + maxX), 0.5 * (minY + maxY), h, 0);
+    }
+
+    private void buildNode(int k, int lo, int hi, double x, double y, double h, int depth) {
+        cx[k] = x;
+        cy[k] = y;
+        half[k] = h;
+        start[k] = lo;
+        end[k] = hi;
+        child[k] = -1;
+
+        double m = 0.0, mx = 0.0, my = 0.0, r = 0.0, cap = 0.0;
+        for (int b = lo; b < hi; b++) {
+            m += bgm[b];
+            mx += bgm[b] * bx[b];
+            my += bgm[b] * by[b];
+            r += bgm[b] * brs[b];
+            cap = Math.max(cap, bcapSq[b]);
+        }
+        gm[k] = m;
+        rs[k] = m > 0.0 ? r / m : 0.0;
+        maxCap[k] = Math.sqrt(cap);
+        if (m > 0.0) {
+            comX[k] = mx / m;
+            comY[k] = my / m;
+        } else if (hi > lo) {
+            comX[k] = bx[lo];
+            comY[k] = by[lo];
+        } else {
+            comX[k] = x;
+            comY[k] = y;
+        }
+
+        if (hi - lo <= LEAF_SIZE || depth >= MAX_DEPTH) return;
+
+        // Quadrants 0..3 = (-x,-y), (+x,-y), (-x,+y), (+x,+y).
+        int midY = partition(lo, hi, false, y);
+        int midX0 = partition(lo, midY, true, x);
+        int midX1 = partition(midY, hi, true, x);
+
+        ensureNodes(nodeCount + 4);
+        int c = nodeCount;
+        nodeCount += 4;
+        child[k] = c;
+
+        double q = 0.5 * h;
+        buildNode(c, lo, midX0, x - q, y - q, q, depth + 1);
+        buildNode(c + 1, midX0, midY, x + q, y - q, q, depth + 1);
+        buildNode(c + 2, midY, midX1, x - q, y + q, q, depth + 1);
+        buildNode(c + 3, midX1, hi, x + q, y + q, q, depth + 1);
+    }
+
+    // Moves bodies below the split to the front of [lo, hi) and returns the first index at or above it.
+    private int partition(int lo, int hi, boolean byX, double split) {
+        int i = lo;
+        int j = hi - 1;
+        while (i <= j) {
+            if ((byX ? bx[i] : by[i]) < split) {
+                i++;
+            } else {
+                swap(i, j);
+                j--;
+            }
+        }
+        return i;
+    }
+
+    private void swap(int a, int b) {
+        int o = order[a]; order[a] = order[b]; order[b] = o;
+        double t;
+        t = bx[a]; bx[a] = bx[b]; bx[b] = t;
+        t = by[a]; by[a] = by[b]; by[b] = t;
+        t = bgm[a]; bgm[a] = bgm[b]; bgm[b] = t;
+        t = brs[a]; brs[a] = brs[b]; brs[b] = t;
+        t = bcapSq[a]; bcapSq[a] = bcapSq[b]; bcapSq[b] = t;
+    }
+
+    private void ensureNodes(int n) {
+        if (n <= cx.length) return;
+        int cap = Math.max(n, Math.max(16, cx.length * 2));
+        cx = Arrays.copyOf(cx, cap);
+        cy = Arrays.copyOf(cy, cap);
+        half = Arrays.copyOf(half, cap);
+        comX = Arrays.copyOf(comX, cap);
+        comY = Arrays.copyOf(comY, cap);
+        gm = Arrays.copyOf(gm, cap);
+        rs = Arrays.copyOf(rs, cap);
+        maxCap = Arrays.copyOf(maxCap, cap);
+        child = Arrays.copyOf(child, cap);
+        start = Arrays.copyOf(start, cap);
+        end = Arrays.copyOf(end, cap);
+    }
+
+    private boolean accept(int k, double px, double py, double d2) {
+        double h = half[k];
+        if (Math.abs(px - cx[k]) <= h && Math.abs(py - cy[k]) <= h) return false;
+        double size = 2.0 * h;
+        if (size * size >= theta2 * d2) return false;
+        double near = NEAR_FIELD_RS * maxCap[k];
+        return d2 > near * near;
+    }
+
+    // Sums the field at (px, py) into w.ax / w.ay, skipping the body with snapshot index 'skip' (-1 for none).
+    private void walk(Walker w, double px, double py, int skip, Kernel kernel) {
+        int[] stack = w.stack;
+        int sp = 0;
+        stack[sp++] = 0;
+        double ax = 0.0;
+        double ay = 0.0;
+
+        while (sp > 0) {
+            int k = stack[--sp];
+            if (start[k] == end[k]) continue;
+
+            if (child[k] < 0) {
+                for (int b = start[k]; b < end[k]; b++) {
+                    if (order[b] == skip) continue;
+                    double dx = bx[b] - px;
+                    double dy = by[b] - py;
+                    double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+                    double aMag = kernel.eval(bgm[b], brs[b], r);
+                    ax += (dx / r) * aMag;
+                    ay += (dy / r) * aMag;
+                }
+                continue;
+            }
+
+            double dx = comX[k] - px;
+            double dy = comY[k] - py;
+            double d2 = dx * dx + dy * dy;
+            if (accept(k, px, py, d2)) {
+                double r = Math.sqrt(Math.max(1e-12, d2));
+                double aMag = kernel.eval(gm[k], rs[k], r);
+                ax += (dx / r) * aMag;
+                ay += (dy / r) * aMag;
+            } else {
+                int c = child[k];
+                stack[sp++] = c;
+                stack[sp++] = c + 1;
+                stack[sp++] = c + 2;
+                stack[sp++] = c + 3;
+            }
+        }
+        w.ax = ax;
+        w.ay = ay;
+    }
+
+    private double walkPotential(Walker w, double px, double py, Kernel kernel) {
+        int[] stack = w.stack;
+        int sp = 0;
+        stack[sp++] = 0;
+        double phi = 0.0;
+
+        while (sp > 0) {
+            int k = stack[--sp];
+            if (start[k] == end[k]) continue;
+
+            if (child[k] < 0) {
+                for (int b = start[k]; b < end[k]; b++) {
+                    double dx = bx[b] - px;
+                    double dy = by[b] - py;
+                    phi += kernel.eval(bgm[b], brs[b], Math.sqrt(Math.max(1e-12, dx * dx + dy * dy)));
+                }
+                continue;
+            }
+
+            double dx = comX[k] - px;
+            double dy = comY[k] - py;
+            double d2 = dx * dx + dy * dy;
+            if (accept(k, px, py, d2)) {
+                phi += kernel.eval(gm[k], rs[k], Math.sqrt(Math.max(1e-12, d2)));
+            } else {
+                int c = child[k];
+                stack[sp++] = c;
+                stack[sp++] = c + 1;
+                stack[sp++] = c + 2;
+                stack[sp++] = c + 3;
+            }
+        }
+        return phi;
+    }
+
+    public void accelerationBatch(double[] x, double[] y, double[] outAx, double[] outAy, int from, int to,
+                                  Kernel kernel, double maxAcc) {
+        Walker w = walkers.get();
+        for (int i = from; i < to; i++) {
+            walk(w, x[i], y[i], -1, kernel);
+            double ax = w.ax;
+            double ay = w.ay;
+
+            double aLen = Math.sqrt(ax * ax + ay * ay);
+            if (aLen > maxAcc) {
+                double k = maxAcc / Math.max(1e-12, aLen);
+                ax *= k;
+                ay *= k;
+            }
+            outAx[i] = ax;
+            outAy[i] = ay;
+        }
+    }
+
+    public void potentialBatch(double[] x, double[] y, double[] outPhi, int from, int to, Kernel kernel) {
+        Walker w = walkers.get();
+        for (int i = from; i < to; i++) {
+            outPhi[i] = walkPotential(w, x[i], y[i], kernel);
+        }
+    }
+
+    // Field on every snapshot body from all the others, indexed like the snapshot.
+    public void bodyAccelerations(double[] outAx, double[] outAy, Kernel kernel) {
+        Walker w = walkers.get();
+        for (int b = 0; b < bodyCount; b++) {
+            int j = order[b];
+            walk(w, bx[b], by[b], j, kernel);
+            outAx[j] = w.ax;
+            outAy[j] = w.ay;
+        }
+    }
+
+    // Distance from (px, py) to the closest capture circle (negative inside one); exact branch-and-bound.
+    public double nearestCaptureDistance(double px, double py) {
+        double best = Double.POSITIVE_INFINITY;
+        if (bodyCount == 0) return best;
+        int[] stack = walkers.get().stack;
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int k = stack[--sp];
+            if (start[k] == end[k]) continue;
+
+            double ox = Math.max(0.0, Math.abs(px - cx[k]) - half[k]);
+            double oy = Math.max(0.0, Math.abs(py - cy[k]) - half[k]);
+            if (Math.sqrt(ox * ox + oy * oy) - maxCap[k] >= best) continue;
+
+            if (child[k] < 0) {
+                for (int b = start[k]; b < end[k]; b++) {
+                    double dx = bx[b] - px;
+                    double dy = by[b] - py;
+                    best = Math.min(best, Math.sqrt(dx * dx + dy * dy) - Math.sqrt(bcapSq[b]));
+                }
+                continue;
+            }
+
+            int c = child[k];
+            stack[sp++] = c;
+            stack[sp++] = c + 1;
+            stack[sp++] = c + 2;
+            stack[sp++] = c + 3;
+        }
+        return best;
+    }
+
+    // Exact: only prunes cells whose bounds are farther away than their largest capture radius.
+    public boolean insideAnyCapture(double px, double py) {
+        if (bodyCount == 0) return false;
+        int[] stack = walkers.get().stack;
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int k = stack[--sp];
+            if (start[k] == end[k]) continue;
+
+            double ox = Math.max(0.0, Math.abs(px - cx[k]) - half[k]);
+            double oy = Math.max(0.0, Math.abs(py - cy[k]) - half[k]);
+            double cap = maxCap[k] * (1.0 + 1e-9);
+            if (ox * ox + oy * oy > cap * cap) continue;
+
+            if (child[k] < 0) {
+                for (int b = start[k]; b < end[k]; b++) {
+                    double dx = bx[b] - px;
+                    double dy = by[b] - py;
+                    if (dx * dx + dy * dy < bcapSq[b]) return true;
+                }
+                continue;
+            }
+
+            int c = child[k];
+            stack[sp++] = c;
+            stack[sp++] = c + 1;
+            stack[sp++] = c + 2;
+            stack[sp++] = c + 3;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Flat copy of the black-hole set taken once per engine step, so batched force
+ * kernels don't walk the BlackHole list or recompute G*M and rs per particle.
+ */
+public final class BlackHoleSnapshot {
+
+    private int count = 0;
+
+    public double[] x = new double[4];
+    public double[] y = new double[4];
+    public double[] mass = new double[4];
+    public double[] gm = new double[4];
+    public double[] rs = new double[4];
+    // Squared radius inside which a particle is absorbed (see SimulationEngine.isInsideAnyEventHorizon).
+    public double[] captureSq = new double[4];
+
+    private long version = 0;
+
+    public int size() { return count; }
+
+    // Incremented by update() whenever any hole's position, G*M or rs differs from the previous snapshot.
+    public long version() { return version; }
+
+    // Copies contents and version, e.g. for a background job that must not see later updates.
+    public void copyFrom(BlackHoleSnapshot o) {
+        int n = o.count;
+        if (n > x.length) {
+            x = new double[n];
+            y = new double[n];
+            mass = new double[n];
+            gm = new double[n];
+            rs = new double[n];
+            captureSq = new double[n];
+        }
+        System.arraycopy(o.x, 0, x, 0, n);
+        System.arraycopy(o.y, 0, y, 0, n);
+        System.arraycopy(o.mass, 0, mass, 0, n);
+        System.arraycopy(o.gm, 0, gm, 0, n);
+        System.arraycopy(o.rs, 0, rs, 0, n);
+        System.arraycopy(o.captureSq, 0, captureSq, 0, n);
+        count = n;
+        version = o.version;
+    }
+
+    public void update(List<BlackHole> blackHoles, GravityModel model, PhysicsParams params) {
+        int n = blackHoles.size();
+        if (n > x.length) {
+            int cap = Math.max(n, x.length * 2);
+            x = Arrays.copyOf(x, cap);
+            y = Arrays.copyOf(y, cap);
+            mass = Arrays.copyOf(mass, cap);
+            gm = Arrays.copyOf(gm, cap);
+            rs = Arrays.copyOf(rs, cap);
+            captureSq = Arrays.copyOf(captureSq, cap);
+        }
+
+        boolean changed = n != count;
+        for (int j = 0; j < n; j++) {
+            BlackHole bh = blackHoles.get(j);
+            // Also refreshes the derived cache here, before particle workers read it.
+            DerivedQuantities d = bh.derived(params);
+            double bx = bh.getPosition().x;
+            double by = bh.getPosition().y;
+            double bgm = params.G * bh.getMass();
+            double brs = d.rs();
+            if (!changed && (bx != x[j] || by != y[j] || bgm != gm[j] || brs != rs[j])) changed = true;
+            x[j] = bx;
+            y[j] = by;
+            mass[j] = bh.getMass();
+            gm[j] = bgm;
+            rs[j] = brs;
+            captureSq[j] = d.captureRadiusSq(model, bh, params);
+        }
+        count = n;
+        if (changed) version++;
+    }
+}
@@ -0,0 +1,242 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+import java.util.Arrays;
+
+/*
+ * Kick-drift-kick leapfrog with hierarchical block timesteps. At the start of
+ * each frame every particle gets a power-of-two level l from
+ *
+ *   dt_i = eta * sqrt(d / |a|),   d = distance to the nearest horizon,
+ *
+ * and then takes 2^l substeps of dt / 2^l. Particles are test masses, so each
+ * level of a block is advanced on its own and only that level's particles are
+ * evaluated on its substeps: a frame with most particles on level 0 costs
+ * about one force evaluation each, however fine the few close ones go.
+ * Levels are reassigned at frame boundaries only.
+ *
+ * Like YoshidaIntegrator, the end-of-frame force is cached in ParticleStore and
+ * reused for the next frame's first kick while the force field is unchanged.
+ */
+public class BlockTimestepIntegrator implements Integrator {
+
+    private static final int BLOCK = 256;
+    public static final int MAX_LEVELS = 16;
+
+    private static final double INV_LN2 = 1.0 / Math.log(2.0);
+
+    private volatile int maxLevel = 6;
+    private volatile double eta = 0.005;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private long cachedFieldVersion = -1;
+    private long cachedStep = -1;
+
+    @Override
+    public String name() {
+        return "Block timesteps";
+    }
+
+    public int getMaxLevel() { return maxLevel; }
+
+    // Finest level; particles below it take at most 2^maxLevel substeps per frame.
+    public void setMaxLevel(int maxLevel) {
+        this.maxLevel = Math.max(0, Math.min(MAX_LEVELS - 1, maxLevel));
+    }
+
+    public double getEta() { return eta; }
+
+    public void setEta(double eta) {
+        this.eta = Math.max(1e-6, eta);
+    }
+
+    @Override
+    public void step(SimulationEngine engine, double dt, boolean pushTrails) {
+        if (dt <= 0) return;
+
+        boolean reuse = cachedFieldVersion == engine.getForceFieldVersion() && cachedStep + 1 == engine.getStepCount();
+        int levels = maxLevel;
+        double eta = this.eta;
+
+        ParticleStore ps = engine.getParticleStore();
+        engine.forEachParticleRange((from, to) -> {
+            Scratch s = scratch.get();
+            for (int b = from; b < to; b += BLOCK) {
+                stepBlock(engine, ps, s, b, Math.min(to, b + BLOCK), dt, pushTrails, reuse, levels, eta);
+            }
+        });
+
+        cachedFieldVersion = engine.getForceFieldVersion();
+        cachedStep = engine.getStepCount();
+    }
+
+    private void stepBlock(SimulationEngine engine, ParticleStore ps, Scratch s, int from, int to, double dt,
+                           boolean pushTrails, boolean reuse, int levels, double eta) {
+        PhysicsParams params = engine.getParams();
+
+        int m = 0;
+        int q = 0;
+        for (int i = from; i < to; i++) {
+            if (!ps.isAlive(i)) continue;
+
+            if (pushTrails) ps.pushTrailPoint(i);
+
+            if (engine.isInsideAnyEventHorizon(ps.x[i], ps.y[i])) {
+                ps.kill(i);
+                continue;
+            }
+
+            s.gIdx[m] = i;
+            s.gx[m] = ps.x[i];
+            s.gy[m] = ps.y[i];
+            if (reuse && ps.hasFlag(i, ParticleStore.FLAG_FORCE_CACHED)) {
+                s.gax[m] = ps.ax[i];
+                s.gay[m] = ps.ay[i];
+            } else {
+                s.missing[q++] = m;
+            }
+            m++;
+        }
+        if (m == 0) return;
+
+        if (q > 0) {
+            for (int k = 0; k < q; k++) {
+                s.px[k] = s.gx[s.missing[k]];
+                s.py[k] = s.gy[s.missing[k]];
+            }
+            engine.accelerations(s.px, s.py, s.ax, s.ay, 0, q);
+            for (int k = 0; k < q; k++) {
+                s.gax[s.missing[k]] = s.ax[k];
+                s.gay[s.missing[k]] = s.ay[k];
+            }
+        }
+
+        // Level per particle, then a counting sort so every level is one contiguous range.
+        int[] count = s.count;
+        Arrays.fill(count, 0, levels + 2, 0);
+        for (int k = 0; k < m; k++) {
+            double a = Math.sqrt(s.gax[k] * s.gax[k] + s.gay[k] * s.gay[k]);
+            double d = Math.max(1e-6, engine.distanceToNearestHorizon(s.gx[k], s.gy[k]));
+            double need = eta * Math.sqrt(d / Math.max(1e-12, a));
+            int level = 0;
+            if (need < dt) {
+                level = (int) Math.ceil(Math.log(dt / need) * INV_LN2);
+                level = Math.min(levels, Math.max(0, level));
+            }
+            s.level[k] = level;
+            count[level + 1]++;
+        }
+        for (int l = 0; l <= levels; l++) count[l + 1] += count[l];
+
+        int[] slot = s.slot;
+        System.arraycopy(count, 0, slot, 0, levels + 1);
+        for (int k = 0; k < m; k++) {
+            int at = slot[s.level[k]]++;
+            int i = s.gIdx[k];
+            s.idx[at] = i;
+            s.px[at] = s.gx[k];
+            s.py[at] = s.gy[k];
+            s.vx[at] = ps.vx[i];
+            s.vy[at] = ps.vy[i];
+            s.ax[at] = s.gax[k];
+            s.ay[at] = s.gay[k];
+        }
+
+        for (int l = 0; l <= levels; l++) {
+            int start = count[l];
+            int end = count[l + 1];
+            if (start == end) continue;
+            end = advanceLevel(engine, ps, s, start, end, dt / (1 << l), 1 << l);
+            writeBack(engine, ps, s, start, end, params);
+        }
+    }
+
+    // Runs 'substeps' KDK steps of size h over [start, end); particles that fall in are killed and
+    // swapped out of the range. Returns the new end.
+    private int advanceLevel(SimulationEngine engine, ParticleStore ps, Scratch s, int start, int end,
+                             double h, int substeps) {
+        double halfH = 0.5 * h;
+        for (int n = 0; n < substeps && start < end; n++) {
+            for (int k = start; k < end; k++) {
+                s.vx[k] += s.ax[k] * halfH;
+                s.vy[k] += s.ay[k] * halfH;
+                s.px[k] += s.vx[k] * h;
+                s.py[k] += s.vy[k] * h;
+            }
+
+            engine.accelerations(s.px, s.py, s.ax, s.ay, start, end);
+
+            for (int k = start; k < end; k++) {
+                s.vx[k] += s.ax[k] * halfH;
+                s.vy[k] += s.ay[k] * halfH;
+            }
+
+            // The last substep's check is left to writeBack, like the single-step integrators.
+            if (n + 1 < substeps) {
+                int k = start;
+                while (k < end) {
+                    if (engine.isInsideAnyEventHorizon(s.px[k], s.py[k])) {
+                        ps.x[s.idx[k]] = s.px[k];
+                        ps.y[s.idx[k]] = s.py[k];
+                        ps.kill(s.idx[k]);
+                        s.move(--end, k);
+                    } else {
+                        k++;
+                    }
+                }
+            }
+        }
+        return end;
+    }
+
+    private void writeBack(SimulationEngine engine, ParticleStore ps, Scratch s, int start, int end, PhysicsParams params) {
+        for (int k = start; k < end; k++) {
+            int i = s.idx[k];
+            ps.x[i] = s.px[k];
+            ps.y[i] = s.py[k];
+            ps.vx[i] = s.vx[k];
+            ps.vy[i] = s.vy[k];
+            ps.ax[i] = s.ax[k];
+            ps.ay[i] = s.ay[k];
+            ps.setFlag(i, ParticleStore.FLAG_FORCE_CACHED, true);
+
+            if (engine.isInsideAnyEventHorizon(s.px[k], s.py[k])
+                    || Math.abs(s.px[k]) > params.killDistance || Math.abs(s.py[k]) > params.killDistance) {
+                ps.kill(i);
+            }
+        }
+    }
+
+    private static final class Scratch {
+        final int[] gIdx = new int[BLOCK];
+        final double[] gx = new double[BLOCK];
+        final double[] gy = new double[BLOCK];
+        final double[] gax = new double[BLOCK];
+        final double[] gay = new double[BLOCK];
+        final int[] missing = new int[BLOCK];
+        final int[] level = new int[BLOCK];
+        final int[] count = new int[MAX_LEVELS + 1];
+        final int[] slot = new int[MAX_LEVELS + 1];
+
+        final int[] idx = new int[BLOCK];
+        final double[] px = new double[BLOCK];
+        final double[] py = new double[BLOCK];
+        final double[] vx = new double[BLOCK];
+        final double[] vy = new double[BLOCK];
+        final double[] ax = new double[BLOCK];
+        final double[] ay = new double[BLOCK];
+
+        void move(int from, int to) {
+            idx[to] = idx[from];
+            px[to] = px[from];
+            py[to] = py[from];
+            vx[to] = vx[from];
+            vy[to] = vy[from];
+            ax[to] = ax[from];
+            ay[to] = ay[from];
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+
+/*
+ * Per-black-hole lengths that only depend on mass, spin, G, c and the
+ * relativity mode. Recomputed when one of those inputs differs from the last
+ * refresh, so horizon tests and disk drawing don't repeat the divides, square
+ * and cube roots for every particle or frame.
+ *
+ * Not synchronized: the engine refreshes every black hole on the simulation
+ * thread (BlackHoleSnapshot.update) before particle workers read the values.
+ */
+public final class DerivedQuantities {
+
+    private double mass = Double.NaN;
+    private double spin;
+    private double G;
+    private double c;
+    private RelativityMode mode;
+
+    private double rg;
+    private double rs;
+    private double chi;
+    private double kerrA;
+    private double horizonRadius;
+    private double horizonRadiusSq;
+    private double rsSq;
+    private double iscoRadius;
+
+    // Newtonian-mode horizon as given by captureModel.eventHorizonRadius; null until asked for.
+    private GravityModel captureModel;
+    private double modelHorizonRadius;
+    private double modelHorizonRadiusSq;
+
+    public void refresh(double mass, double spin, PhysicsParams p) {
+        if (mass == this.mass && spin == this.spin && p.G == G && p.c == c && p.relativityMode == mode) return;
+
+        rg = Relativity.massLength(mass, p);
+        rs = (2.0 * p.G * mass) / (p.c * p.c);
+        chi = Relativity.clampSpin(spin);
+        kerrA = rg * chi;
+        horizonRadius = p.relativityMode == RelativityMode.KERR
+                ? Relativity.kerrHorizonRadius(rg, spin)
+                : 2.0 * rg;
+        horizonRadiusSq = horizonRadius * horizonRadius;
+        rsSq = rs * rs;
+        iscoRadius = Relativity.iscoRadius(rg, spin, p.relativityMode);
+        captureModel = null;
+
+        this.mass = mass;
+        this.spin = spin;
+        this.G = p.G;
+        this.c = p.c;
+        this.mode = p.relativityMode;
+    }
+
+    // G*M/c^2
+    public double rg() { return rg; }
+
+    // 2*G*M/c^2 as used by the gravity models
+    public double rs() { return rs; }
+
+    public double rsSq() { return rsSq; }
+
+    // Dimensionless spin clamped to [0, 0.999]
+    public double chi() { return chi; }
+
+    // Kerr spin parameter a = chi * rg, in world units
+    public double kerrA() { return kerrA; }
+
+    public double horizonRadius() { return horizonRadius; }
+
+    public double horizonRadiusSq() { return horizonRadiusSq; }
+
+    public double iscoRadius() { return iscoRadius; }
+
+    // Radius inside which particles are absorbed: the relativistic horizon, or in Newtonian mode the gravity
+    // model's eventHorizonRadius, cached per model. 'bh' is the hole this instance belongs to.
+    public double captureRadius(GravityModel model, BlackHole bh, PhysicsParams p) {
+        if (mode != RelativityMode.NEWTONIAN) return horizonRadius;
+        refreshCapture(model, bh, p);
+        return modelHorizonRadius;
+    }
+
+    public double captureRadiusSq(GravityModel model, BlackHole bh, PhysicsParams p) {
+        if (mode != RelativityMode.NEWTONIAN) return horizonRadiusSq;
+        refreshCapture(model, bh, p);
+        return modelHorizonRadiusSq;
+    }
+
+    private void refreshCapture(GravityModel model, BlackHole bh, PhysicsParams p) {
+        if (model == captureModel) return;
+        modelHorizonRadius = model.eventHorizonRadius(bh, p);
+        modelHorizonRadiusSq = modelHorizonRadius * modelHorizonRadius;
+        captureModel = model;
+    }
+}
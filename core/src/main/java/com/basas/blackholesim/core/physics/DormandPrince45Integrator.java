@@ -0,0 +1,322 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+/*
+ * Adaptive Dormand–Prince 5(4) with per-particle step sizes. The last stage is
+ * evaluated at the accepted point (First Same As Last), so it is reused as the
+ * first stage of the next attempt: an attempt costs six force evaluations, and
+ * rejections do not repeat the first one.
+ *
+ * Each particle keeps its last accepted step size and error in ParticleStore
+ * and the next frame starts from them instead of the frame length. Step sizes
+ * come from a PI controller; the end-of-frame force is cached in ParticleStore
+ * like in YoshidaIntegrator and reused while the force field is unchanged.
+ */
+public class DormandPrince45Integrator implements Integrator {
+
+    private static final int BLOCK = 256;
+    private static final int STAGES = 7;
+
+    private static final double[][] A = {
+            {},
+            { 1.0 / 5.0 },
+            { 3.0 / 40.0, 9.0 / 40.0 },
+            { 44.0 / 45.0, -56.0 / 15.0, 32.0 / 9.0 },
+            { 19372.0 / 6561.0, -25360.0 / 2187.0, 64448.0 / 6561.0, -212.0 / 729.0 },
+            { 9017.0 / 3168.0, -355.0 / 33.0, 46732.0 / 5247.0, 49.0 / 176.0, -5103.0 / 18656.0 },
+            { 35.0 / 384.0, 0.0, 500.0 / 1113.0, 125.0 / 192.0, -2187.0 / 6784.0, 11.0 / 84.0 }
+    };
+
+    private static final double[] B4 = { 5179.0 / 57600.0, 0.0, 7571.0 / 16695.0, 393.0 / 640.0,
+            -92097.0 / 339200.0, 187.0 / 2100.0, 1.0 / 40.0 };
+
+    // PI step-size controller (Gustafsson), exponents for an embedded pair of order 4.
+    private static final double ALPHA = 0.7 / 5.0;
+    private static final double BETA = 0.4 / 5.0;
+    private static final double SAFETY = 0.9;
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+    private static final double MIN_ERROR = 1e-4;
+
+    private double tolerance = 1e-3;
+    private int maxSubstepsPerFrame = 32;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private long cachedFieldVersion = -1;
+    private long cachedStep = -1;
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = Math.max(1e-6, Math.min(1e-1, tolerance));
+    }
+
+    public int getMaxSubstepsPerFrame() {
+        return maxSubstepsPerFrame;
+    }
+
+    public void setMaxSubstepsPerFrame(int maxSubstepsPerFrame) {
+        this.maxSubstepsPerFrame = Math.max(8, Math.min(128, maxSubstepsPerFrame));
+    }
+
+    @Override
+    public String name() {
+        return "Dormand–Prince RK45";
+    }
+
+    @Override
+    public void step(SimulationEngine engine, double dt, boolean pushTrails) {
+        if (dt <= 0)
+            return;
+
+        boolean reuse = cachedFieldVersion == engine.getForceFieldVersion() && cachedStep + 1 == engine.getStepCount();
+
+        ParticleStore ps = engine.getParticleStore();
+        engine.forEachParticleRange((from, to) -> {
+            Scratch s = scratch.get();
+            for (int b = from; b < to; b += BLOCK)
+                stepBlock(engine, ps, s, b, Math.min(to, b + BLOCK), dt, pushTrails, reuse);
+        });
+
+        cachedFieldVersion = engine.getForceFieldVersion();
+        cachedStep = engine.getStepCount();
+    }
+
+    private void stepBlock(SimulationEngine engine, ParticleStore ps, Scratch s, int from, int to, double dt,
+            boolean pushTrails, boolean reuse) {
+        PhysicsParams params = engine.getParams();
+
+        int m = 0;
+        int q = 0;
+        for (int i = from; i < to; i++) {
+            if (!ps.isAlive(i))
+                continue;
+
+            if (pushTrails)
+                ps.pushTrailPoint(i);
+
+            if (engine.isInsideAnyEventHorizon(ps.x[i], ps.y[i])) {
+                ps.kill(i);
+                continue;
+            }
+
+            s.idx[m] = i;
+            s.remaining[m] = dt;
+            s.h[m] = ps.stepSize[i] > 0.0 ? ps.stepSize[i] : dt;
+            s.errPrev[m] = ps.stepError[i] > 0.0 ? ps.stepError[i] : MIN_ERROR;
+            s.rejected[m] = false;
+            s.sub[m] = 0;
+            if (reuse && ps.hasFlag(i, ParticleStore.FLAG_FORCE_CACHED)) {
+                s.ax[m] = ps.ax[i];
+                s.ay[m] = ps.ay[i];
+            } else {
+                s.lane[q] = m;
+                s.sx[q] = ps.x[i];
+                s.sy[q] = ps.y[i];
+                q++;
+            }
+            m++;
+        }
+        if (m == 0)
+            return;
+
+        // First stage for particles without a cached force; afterwards it always comes from the last stage.
+        if (q > 0) {
+            engine.accelerations(s.sx, s.sy, s.kvx[0], s.kvy[0], 0, q);
+            for (int a = 0; a < q; a++) {
+                s.ax[s.lane[a]] = s.kvx[0][a];
+                s.ay[s.lane[a]] = s.kvy[0][a];
+            }
+        }
+
+        integrateAdaptive(engine, ps, s, m);
+
+        for (int l = 0; l < m; l++) {
+            int i = s.idx[l];
+            if (!ps.isAlive(i))
+                continue;
+
+            ps.stepSize[i] = s.h[l];
+            ps.stepError[i] = s.errPrev[l];
+            ps.ax[i] = s.ax[l];
+            ps.ay[i] = s.ay[l];
+            ps.setFlag(i, ParticleStore.FLAG_FORCE_CACHED, true);
+
+            if (Math.abs(ps.x[i]) > params.killDistance
+                    || Math.abs(ps.y[i]) > params.killDistance) {
+                ps.kill(i);
+            }
+        }
+    }
+
+    private void integrateAdaptive(SimulationEngine engine, ParticleStore ps, Scratch s, int m) {
+        while (true) {
+            int q = 0;
+            for (int l = 0; l < m; l++) {
+                if (s.remaining[l] <= 1e-12 || s.sub[l] >= maxSubstepsPerFrame || !ps.isAlive(s.idx[l]))
+                    continue;
+                s.step[q] = Math.min(s.h[l], s.remaining[l]);
+                s.lane[q++] = l;
+            }
+            if (q == 0)
+                return;
+
+            dopriAttempt(engine, ps, s, q);
+
+            for (int a = 0; a < q; a++) {
+                int l = s.lane[a];
+                int i = s.idx[l];
+                double h = s.step[a];
+                double err = s.err[a] / tolerance;
+
+                // A non-finite estimate carries no step-size information: shrink hard, and give up at the cap.
+                if (Double.isNaN(err)) {
+                    s.h[l] = h * MIN_FACTOR;
+                    s.rejected[l] = true;
+                    if (++s.sub[l] >= maxSubstepsPerFrame)
+                        ps.kill(i);
+                    continue;
+                }
+                err = Math.max(err, MIN_ERROR);
+
+                if (err > 1.0) {
+                    s.h[l] = h * Math.max(MIN_FACTOR, SAFETY * Math.pow(err, -1.0 / 5.0));
+                    s.rejected[l] = true;
+                    s.sub[l]++;
+                    continue;
+                }
+
+                ps.x[i] = s.nx[a];
+                ps.y[i] = s.ny[a];
+                ps.vx[i] = s.nvx[a];
+                ps.vy[i] = s.nvy[a];
+
+                if (engine.isInsideAnyEventHorizon(s.nx[a], s.ny[a])) {
+                    ps.kill(i);
+                    continue;
+                }
+
+                s.ax[l] = s.kvx[STAGES - 1][a];
+                s.ay[l] = s.kvy[STAGES - 1][a];
+                s.remaining[l] -= h;
+
+                // No growth right after a rejection; a step shortened to end the frame keeps the longer proposal.
+                double factor = SAFETY * Math.pow(err, -ALPHA) * Math.pow(s.errPrev[l], BETA);
+                factor = Math.max(MIN_FACTOR, Math.min(s.rejected[l] ? 1.0 : MAX_FACTOR, factor));
+                s.h[l] = h < s.h[l] && factor >= 1.0 ? Math.max(s.h[l], h * factor) : h * factor;
+                s.errPrev[l] = err;
+                s.rejected[l] = false;
+
+                s.sub[l]++;
+            }
+        }
+    }
+
+    private void dopriAttempt(SimulationEngine engine, ParticleStore ps, Scratch s, int q) {
+        double[] sx = s.sx;
+        double[] sy = s.sy;
+
+        for (int a = 0; a < q; a++) {
+            int l = s.lane[a];
+            int i = s.idx[l];
+            s.kx[0][a] = ps.vx[i];
+            s.ky[0][a] = ps.vy[i];
+            s.kvx[0][a] = s.ax[l];
+            s.kvy[0][a] = s.ay[l];
+        }
+
+        for (int st = 1; st < STAGES; st++) {
+            double[] coef = A[st];
+            for (int a = 0; a < q; a++) {
+                int l = s.lane[a];
+                int i = s.idx[l];
+                double h = s.step[a];
+
+                double dx = 0.0, dy = 0.0, dvx = 0.0, dvy = 0.0;
+                for (int j = 0; j < coef.length; j++) {
+                    double c = coef[j];
+                    if (c == 0.0)
+                        continue;
+                    dx += c * s.kx[j][a];
+                    dy += c * s.ky[j][a];
+                    dvx += c * s.kvx[j][a];
+                    dvy += c * s.kvy[j][a];
+                }
+
+                sx[a] = ps.x[i] + h * dx;
+                sy[a] = ps.y[i] + h * dy;
+                s.kx[st][a] = ps.vx[i] + h * dvx;
+                s.ky[st][a] = ps.vy[i] + h * dvy;
+            }
+
+            engine.accelerations(sx, sy, s.kvx[st], s.kvy[st], 0, q);
+
+            if (st == STAGES - 1) {
+                System.arraycopy(sx, 0, s.nx, 0, q);
+                System.arraycopy(sy, 0, s.ny, 0, q);
+                System.arraycopy(s.kx[st], 0, s.nvx, 0, q);
+                System.arraycopy(s.ky[st], 0, s.nvy, 0, q);
+            }
+        }
+
+        for (int a = 0; a < q; a++) {
+            int l = s.lane[a];
+            int i = s.idx[l];
+            double h = s.step[a];
+            double x = ps.x[i];
+            double y = ps.y[i];
+            double vx = ps.vx[i];
+            double vy = ps.vy[i];
+
+            double dx = 0.0, dy = 0.0, dvx = 0.0, dvy = 0.0;
+            for (int j = 0; j < STAGES; j++) {
+                double c = B4[j];
+                if (c == 0.0)
+                    continue;
+                dx += c * s.kx[j][a];
+                dy += c * s.ky[j][a];
+                dvx += c * s.kvx[j][a];
+                dvy += c * s.kvy[j][a];
+            }
+
+            double ex = Math.abs(s.nx[a] - (x + h * dx));
+            double ey = Math.abs(s.ny[a] - (y + h * dy));
+            double evx = Math.abs(s.nvx[a] - (vx + h * dvx));
+            double evy = Math.abs(s.nvy[a] - (vy + h * dvy));
+
+            double scale = 1.0 + Math.max(Math.abs(x), Math.abs(y)) + Math.max(Math.abs(vx), Math.abs(vy));
+            s.err[a] = Math.max(Math.max(ex, ey), Math.max(evx, evy)) / scale;
+        }
+    }
+
+    private static final class Scratch {
+        final int[] idx = new int[BLOCK];
+        final int[] lane = new int[BLOCK];
+        final int[] sub = new int[BLOCK];
+        final double[] remaining = new double[BLOCK];
+        final double[] h = new double[BLOCK];
+        final double[] errPrev = new double[BLOCK];
+        final boolean[] rejected = new boolean[BLOCK];
+        final double[] ax = new double[BLOCK];
+        final double[] ay = new double[BLOCK];
+        final double[] step = new double[BLOCK];
+
+        final double[] sx = new double[BLOCK];
+        final double[] sy = new double[BLOCK];
+        final double[][] kx = new double[STAGES][BLOCK];
+        final double[][] ky = new double[STAGES][BLOCK];
+        final double[][] kvx = new double[STAGES][BLOCK];
+        final double[][] kvy = new double[STAGES][BLOCK];
+
+        final double[] nx = new double[BLOCK];
+        final double[] ny = new double[BLOCK];
+        final double[] nvx = new double[BLOCK];
+        final double[] nvy = new double[BLOCK];
+        final double[] err = new double[BLOCK];
+    }
+}
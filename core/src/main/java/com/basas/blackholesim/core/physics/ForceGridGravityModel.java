@@ -0,0 +1,504 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Vec2;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Decorator that serves the batch acceleration and potential of another model
+ * from a precomputed grid while the black holes stand still (enableBHDynamics
+ * off, or holes that otherwise keep their snapshot unchanged). The square
+ * around the holes is split into TILES x TILES tiles; each tile is sampled at
+ * the coarsest power-of-two resolution whose bilinear interpolation stays
+ * within 'tolerance' of the exact field at the cell centres, so tiles near
+ * horizons are fine and the far field coarse. Tiles that miss the tolerance
+ * even at MAX_RESOLUTION (horizons, the clamp at maxAcceleration) and points
+ * outside the square are evaluated exactly.
+ * A lookup is one tile index and one bilinear blend, whatever the hole count.
+ * That is a few cache misses rather than arithmetic, so it only pays once the
+ * direct sum has enough holes. With 200k particles (ForceGridBenchmark) the
+ * grid costs 5.3 / 5.5 / 6.6 / 9.3 ms at 1 / 2 / 4 / 8 holes against a scalar
+ * PW sum of 3.7 / 8.0 / 11.6 / 22.6 ms, so without the vector kernels it wins
+ * from 2 holes. The SIMD sum costs 3.3 / 6.5 / 9.2 / 11.8 / 17.7 ms at
+ * 4 / 8 / 12 / 16 / 24 holes against 6.1 / 7.4 / 10.0 / 10.7 / 11.0 ms for the
+ * grid, crossing over at about 13. Below minBlackHoles, which by default is
+ * 16 while the vector kernels are in use and 2 otherwise, the wrapped model is
+ * used directly; a single hole never gets a grid by default. Nor is one built
+ * once the engine switches to BarnesHutTree (barnesHutMinBlackHoles), which
+ * then answers particle forces itself: sampling every tile against hundreds
+ * of holes takes longer than most runs.
+ *
+ * Grids are built on a background thread from a copy of the snapshot, once it
+ * has been unchanged for a step, and installed in prepare() at a step boundary;
+ * until then, and whenever holes or force parameters change, the wrapped model
+ * answers. The single-point methods always delegate, since callers pass their
+ * own hole lists.
+ */
+public final class ForceGridGravityModel implements GravityModel {
+
+    static final int TILES = 128;
+    static final int MAX_RESOLUTION = 64;
+
+    // Measured crossovers, see above.
+    static final int SIMD_MIN_BLACK_HOLES = 16;
+    static final int SCALAR_MIN_BLACK_HOLES = 2;
+
+    // Upper bound on grid samples (three doubles each); tiles past it stay exact.
+    private static final int MAX_SAMPLES = 4 << 20;
+    private static final int CHUNK = 256;
+
+    private final GravityModel inner;
+
+    private volatile double tolerance = 1e-3;
+    private volatile double margin = 3000.0;
+    // 0 picks the crossover for the kernels in use.
+    private volatile int minBlackHoles = 0;
+    private volatile int configVersion = 0;
+
+    // Simulation-thread state.
+    private Grid active;
+    private long revision = 0;
+    private long lastSeenVersion = -1;
+    private final PhysicsParams lastSeenParams = new PhysicsParams();
+    private Thread builder;
+
+    private volatile Grid built;
+    private volatile int generation = 0;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public ForceGridGravityModel(GravityModel inner) {
+        if (inner instanceof ForceGridGravityModel) throw new IllegalArgumentException("model is already a force grid");
+        this.inner = inner;
+    }
+
+    public GravityModel getInner() { return inner; }
+
+    public double getTolerance() { return tolerance; }
+
+    // Largest interpolation error per tile, relative to the tile's largest |a| (and |phi|).
+    public void setTolerance(double tolerance) {
+        this.tolerance = Math.max(1e-6, Math.min(1e-1, tolerance));
+        configVersion++;
+    }
+
+    public double getMargin() { return margin; }
+
+    // Distance the grid extends beyond the holes' bounding box.
+    public void setMargin(double margin) {
+        this.margin = Math.max(100.0, margin);
+        configVersion++;
+    }
+
+    public int getMinBlackHoles() { return minBlackHoles; }
+
+    // 0 (the default) restores the automatic threshold.
+    public void setMinBlackHoles(int minBlackHoles) {
+        this.minBlackHoles = Math.max(0, minBlackHoles);
+    }
+
+    // Hole count from which a grid is used, given the fixed threshold or the kernels 'params' select.
+    public int minBlackHoles(PhysicsParams params) {
+        int n = minBlackHoles;
+        return n > 0 ? n : defaultMinBlackHoles(params);
+    }
+
+    // Hole count from which the grid beats the exact sum with the kernels 'params' select.
+    public static int defaultMinBlackHoles(PhysicsParams params) {
+        return GravityKernels.isVectorAvailable() && params.vectorKernels ? SIMD_MIN_BLACK_HOLES : SCALAR_MIN_BLACK_HOLES;
+    }
+
+    // True once a grid for the current holes is installed.
+    public boolean isActive() { return active != null; }
+
+    // Fraction of tiles answered from samples rather than the exact model, or 0 without a grid.
+    public double gridCoverage() {
+        Grid g = active;
+        if (g == null) return 0.0;
+        int n = 0;
+        for (int r : g.resolution) if (r > 0) n++;
+        return n / (double) g.resolution.length;
+    }
+
+    public int sampleCount() {
+        Grid g = active;
+        return g == null ? 0 : g.samples;
+    }
+
+    @Override
+    public String name() {
+        return inner.name() + " (grid)";
+    }
+
+    @Override
+    public void prepare(BlackHoleSnapshot blackHoles, PhysicsParams params) {
+        inner.prepare(blackHoles, params);
+
+        int config = configVersion;
+        // From barnesHutMinBlackHoles on, the engine walks BarnesHutTree and never asks the batch methods.
+        if (blackHoles.size() < minBlackHoles(params) || BarnesHutTree.appliesTo(blackHoles.size(), params)) {
+            if (active != null) {
+                active = null;
+                revision++;
+            }
+            built = null;
+            generation++;
+            lastSeenVersion = -1;
+            return;
+        }
+
+        Grid current = active;
+        if (current != null && !current.matches(blackHoles.version(), params, config)) {
+            active = null;
+            revision++;
+        }
+
+        Grid ready = built;
+        if (ready != null) {
+            built = null;
+            if (active == null && ready.matches(blackHoles.version(), params, config)) {
+                active = ready;
+                revision++;
+            }
+        }
+
+        boolean stable = blackHoles.version() == lastSeenVersion && lastSeenParams.sameForces(params);
+        lastSeenVersion = blackHoles.version();
+        lastSeenParams.copyFrom(params);
+
+        if (active == null && stable && (builder == null || !builder.isAlive())) {
+            BlackHoleSnapshot copy = new BlackHoleSnapshot();
+            copy.copyFrom(blackHoles);
+            PhysicsParams key = params.copy();
+            PhysicsParams sampling = params.copy();
+            // The wrapped model's tables belong to the simulation thread; sample the exact formula instead.
+            sampling.radialTables = false;
+            int gen = ++generation;
+            double tol = tolerance;
+            double pad = margin;
+            builder = new Thread(() -> {
+                Grid g = build(copy, key, sampling, config, tol, pad, gen);
+                if (g != null) built = g;
+            }, "force-grid");
+            builder.setDaemon(true);
+            builder.start();
+        } else if (active == null && !stable) {
+            // Holes are moving: let a running build notice it is stale.
+            generation++;
+        }
+    }
+
+    @Override
+    public long fieldRevision() {
+        return revision;
+    }
+
+    @Override
+    public void accelerationBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outAx, double[] outAy,
+                                  int from, int to, PhysicsParams params) {
+        Grid g = active;
+        if (g == null) {
+            inner.accelerationBatch(blackHoles, x, y, outAx, outAy, from, to, params);
+            return;
+        }
+
+        Scratch s = scratch.get();
+        int m = 0;
+        for (int i = from; i < to; i++) {
+            if (g.acceleration(x[i], y[i], outAx, outAy, i)) continue;
+            s.idx[m] = i;
+            s.x[m] = x[i];
+            s.y[m] = y[i];
+            if (++m == CHUNK) {
+                exactAcceleration(blackHoles, s, m, outAx, outAy, params);
+                m = 0;
+            }
+        }
+        if (m > 0) exactAcceleration(blackHoles, s, m, outAx, outAy, params);
+    }
+
+    @Override
+    public void potentialBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outPhi,
+                               int from, int to, PhysicsParams params) {
+        Grid g = active;
+        if (g == null) {
+            inner.potentialBatch(blackHoles, x, y, outPhi, from, to, params);
+            return;
+        }
+
+        Scratch s = scratch.get();
+        int m = 0;
+        for (int i = from; i < to; i++) {
+            if (g.potential(x[i], y[i], outPhi, i)) continue;
+            s.idx[m] = i;
+            s.x[m] = x[i];
+            s.y[m] = y[i];
+            if (++m == CHUNK) {
+                exactPotential(blackHoles, s, m, outPhi, params);
+                m = 0;
+            }
+        }
+        if (m > 0) exactPotential(blackHoles, s, m, outPhi, params);
+    }
+
+    private void exactAcceleration(BlackHoleSnapshot blackHoles, Scratch s, int m, double[] outAx, double[] outAy,
+                                   PhysicsParams params) {
+        inner.accelerationBatch(blackHoles, s.x, s.y, s.ax, s.ay, 0, m, params);
+        for (int k = 0; k < m; k++) {
+            outAx[s.idx[k]] = s.ax[k];
+            outAy[s.idx[k]] = s.ay[k];
+        }
+    }
+
+    private void exactPotential(BlackHoleSnapshot blackHoles, Scratch s, int m, double[] outPhi, PhysicsParams params) {
+        inner.potentialBatch(blackHoles, s.x, s.y, s.ax, 0, m, params);
+        for (int k = 0; k < m; k++) outPhi[s.idx[k]] = s.ax[k];
+    }
+
+    @Override
+    public void acceleration(List<BlackHole> blackHoles, Vec2 pos, Vec2 vel, PhysicsParams params, Vec2 outAcc) {
+        inner.acceleration(blackHoles, pos, vel, params, outAcc);
+    }
+
+    @Override
+    public double potential(List<BlackHole> blackHoles, Vec2 pos, PhysicsParams params) {
+        return inner.potential(blackHoles, pos, params);
+    }
+
+    @Override
+    public double eventHorizonRadius(BlackHole bh, PhysicsParams params) {
+        return inner.eventHorizonRadius(bh, params);
+    }
+
+    @Override
+    public double radialAcceleration(double gm, double rs, double r, PhysicsParams params) {
+        return inner.radialAcceleration(gm, rs, r, params);
+    }
+
+    @Override
+    public double radialPotential(double gm, double rs, double r, PhysicsParams params) {
+        return inner.radialPotential(gm, rs, r, params);
+    }
+
+    // Runs on the builder thread; returns null if the holes changed meanwhile.
+    private Grid build(BlackHoleSnapshot snap, PhysicsParams key, PhysicsParams params, int config, double tol,
+                       double pad, int gen) {
+        int n = snap.size();
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < n; j++) {
+            minX = Math.min(minX, snap.x[j]);
+            minY = Math.min(minY, snap.y[j]);
+            maxX = Math.max(maxX, snap.x[j]);
+            maxY = Math.max(maxY, snap.y[j]);
+        }
+        double half = 0.5 * Math.max(maxX - minX, maxY - minY) + pad;
+        Grid g = new Grid(snap.version(), key, config);
+        g.originX = 0.5 * (minX + maxX) - half;
+        g.originY = 0.5 * (minY + maxY) - half;
+        g.tileSize = 2.0 * half / TILES;
+        g.invTileSize = 1.0 / g.tileSize;
+
+        TileSampler sampler = new TileSampler();
+        float[] acc = new float[1 << 15];
+        float[] phi = new float[acc.length >> 1];
+        int used = 0;
+
+        for (int t = 0; t < TILES * TILES; t++) {
+            if (gen != generation) return null;
+
+            double ox = g.originX + (t % TILES) * g.tileSize;
+            double oy = g.originY + (t / TILES) * g.tileSize;
+            int k = 2;
+            while (k <= MAX_RESOLUTION && !sampler.fits(inner, snap, params, ox, oy, g.tileSize, k, tol)) k <<= 1;
+
+            int count = (k + 1) * (k + 1);
+            if (k > MAX_RESOLUTION || used + count > MAX_SAMPLES) continue;
+
+            if (used + count > phi.length) {
+                int cap = Math.max(used + count, phi.length * 2);
+                acc = Arrays.copyOf(acc, cap * 2);
+                phi = Arrays.copyOf(phi, cap);
+            }
+            for (int k2 = 0; k2 < count; k2++) {
+                acc[2 * (used + k2)] = (float) sampler.ax[k2];
+                acc[2 * (used + k2) + 1] = (float) sampler.ay[k2];
+                phi[used + k2] = (float) sampler.phi[k2];
+            }
+            g.offset[t] = used;
+            g.resolution[t] = k;
+            used += count;
+        }
+
+        g.acc = acc;
+        g.phi = phi;
+        g.samples = used;
+        return g;
+    }
+
+    // Samples one tile at k x k cells and checks bilinear interpolation against the exact field at the cell centres.
+    private static final class TileSampler {
+        double[] ax = new double[0];
+        double[] ay = new double[0];
+        double[] phi = new double[0];
+        double[] px = new double[0];
+        double[] py = new double[0];
+        double[] cx = new double[0];
+        double[] cy = new double[0];
+        double[] cax = new double[0];
+        double[] cay = new double[0];
+        double[] cphi = new double[0];
+
+        boolean fits(GravityModel model, BlackHoleSnapshot snap, PhysicsParams params,
+                     double ox, double oy, double size, int k, double tol) {
+            int count = (k + 1) * (k + 1);
+            int centres = k * k;
+            if (ax.length < count) {
+                ax = new double[count];
+                ay = new double[count];
+                phi = new double[count];
+                px = new double[count];
+                py = new double[count];
+            }
+            if (cx.length < centres) {
+                cx = new double[centres];
+                cy = new double[centres];
+                cax = new double[centres];
+                cay = new double[centres];
+                cphi = new double[centres];
+            }
+
+            double h = size / k;
+            for (int j = 0, s = 0; j <= k; j++) {
+                for (int i = 0; i <= k; i++, s++) {
+                    px[s] = ox + i * h;
+                    py[s] = oy + j * h;
+                }
+            }
+            for (int j = 0, s = 0; j < k; j++) {
+                for (int i = 0; i < k; i++, s++) {
+                    cx[s] = ox + (i + 0.5) * h;
+                    cy[s] = oy + (j + 0.5) * h;
+                }
+            }
+            model.accelerationBatch(snap, px, py, ax, ay, 0, count, params);
+            model.potentialBatch(snap, px, py, phi, 0, count, params);
+            model.accelerationBatch(snap, cx, cy, cax, cay, 0, centres, params);
+            model.potentialBatch(snap, cx, cy, cphi, 0, centres, params);
+
+            double maxA = 0.0;
+            double maxPhi = 0.0;
+            for (int s = 0; s < count; s++) {
+                if (!Double.isFinite(ax[s]) || !Double.isFinite(ay[s]) || !Double.isFinite(phi[s])) return false;
+                maxA = Math.max(maxA, Math.abs(ax[s]) + Math.abs(ay[s]));
+                maxPhi = Math.max(maxPhi, Math.abs(phi[s]));
+            }
+
+            double errA = 0.0;
+            double errPhi = 0.0;
+            int row = k + 1;
+            for (int j = 0, c = 0; j < k; j++) {
+                for (int i = 0; i < k; i++, c++) {
+                    int s = j * row + i;
+                    double iax = 0.25 * (ax[s] + ax[s + 1] + ax[s + row] + ax[s + row + 1]);
+                    double iay = 0.25 * (ay[s] + ay[s + 1] + ay[s + row] + ay[s + row + 1]);
+                    double iphi = 0.25 * (phi[s] + phi[s + 1] + phi[s + row] + phi[s + row + 1]);
+                    errA = Math.max(errA, Math.abs(iax - cax[c]) + Math.abs(iay - cay[c]));
+                    errPhi = Math.max(errPhi, Math.abs(iphi - cphi[c]));
+                }
+            }
+            return errA <= tol * maxA && errPhi <= tol * maxPhi;
+        }
+    }
+
+    private static final class Grid {
+        final long snapshotVersion;
+        final PhysicsParams params;
+        final int config;
+
+        double originX, originY, tileSize, invTileSize;
+        // Per tile: cells per side (0 = exact) and the first sample; samples are row-major, (k + 1)^2 per tile.
+        // Floats are plenty for a 1e-3 tolerance and keep the grid cache-sized; acc interleaves ax, ay.
+        final int[] resolution = new int[TILES * TILES];
+        final int[] offset = new int[TILES * TILES];
+        float[] acc, phi;
+        int samples;
+
+        Grid(long snapshotVersion, PhysicsParams params, int config) {
+            this.snapshotVersion = snapshotVersion;
+            this.params = params;
+            this.config = config;
+        }
+
+        boolean matches(long version, PhysicsParams p, int config) {
+            return version == snapshotVersion && config == this.config && params.sameForces(p);
+        }
+
+        boolean acceleration(double x, double y, double[] outAx, double[] outAy, int i) {
+            double u = (x - originX) * invTileSize;
+            double v = (y - originY) * invTileSize;
+            if (!(u >= 0.0 && v >= 0.0 && u < TILES && v < TILES)) return false;
+            int tx = (int) u;
+            int ty = (int) v;
+            int t = ty * TILES + tx;
+            int k = resolution[t];
+            if (k == 0) return false;
+
+            double fu = (u - tx) * k;
+            double fv = (v - ty) * k;
+            int cx = Math.min((int) fu, k - 1);
+            int cy = Math.min((int) fv, k - 1);
+            double s = fu - cx;
+            double w = fv - cy;
+            int row = k + 1;
+            int b = offset[t] + cy * row + cx;
+
+            float[] g = acc;
+            int b0 = 2 * b;
+            int b1 = 2 * (b + row);
+            double x0 = g[b0] + s * (g[b0 + 2] - g[b0]);
+            double x1 = g[b1] + s * (g[b1 + 2] - g[b1]);
+            double y0 = g[b0 + 1] + s * (g[b0 + 3] - g[b0 + 1]);
+            double y1 = g[b1 + 1] + s * (g[b1 + 3] - g[b1 + 1]);
+            outAx[i] = x0 + w * (x1 - x0);
+            outAy[i] = y0 + w * (y1 - y0);
+            return true;
+        }
+
+        boolean potential(double x, double y, double[] outPhi, int i) {
+            double u = (x - originX) * invTileSize;
+            double v = (y - originY) * invTileSize;
+            if (!(u >= 0.0 && v >= 0.0 && u < TILES && v < TILES)) return false;
+            int tx = (int) u;
+            int ty = (int) v;
+            int t = ty * TILES + tx;
+            int k = resolution[t];
+            if (k == 0) return false;
+
+            double fu = (u - tx) * k;
+            double fv = (v - ty) * k;
+            int cx = Math.min((int) fu, k - 1);
+            int cy = Math.min((int) fv, k - 1);
+            double s = fu - cx;
+            double w = fv - cy;
+            int row = k + 1;
+            int b = offset[t] + cy * row + cx;
+
+            float[] g = phi;
+            double p0 = g[b] + s * (g[b + 1] - g[b]);
+            double p1 = g[b + row] + s * (g[b + row + 1] - g[b + row]);
+            outPhi[i] = p0 + w * (p1 - p0);
+            return true;
+        }
+    }
+
+    private static final class Scratch {
+        final int[] idx = new int[CHUNK];
+        final double[] x = new double[CHUNK];
+        final double[] y = new double[CHUNK];
+        final double[] ax = new double[CHUNK];
+        final double[] ay = new double[CHUNK];
+    }
+}
@@ -0,0 +1,61 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.physics.simd.VectorGravityKernels;
+
+/*
+ * Entry point for the optional SIMD kernels. Every method returns the first
+ * index left for the caller's scalar loop, which is 'from' whenever the
+ * vector path is disabled or jdk.incubator.vector is not in the boot layer.
+ */
+final class GravityKernels {
+
+    static final int MIN_BATCH = 16;
+
+    private static final boolean VECTOR_AVAILABLE = detectVectorSupport();
+
+    private GravityKernels() {}
+
+    static boolean isVectorAvailable() { return VECTOR_AVAILABLE; }
+
+    private static boolean detectVectorSupport() {
+        if (Boolean.getBoolean("blackholesim.noSimd")) return false;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return VectorGravityKernels.LANES >= 2;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static boolean useVector(PhysicsParams params, int from, int to) {
+        return VECTOR_AVAILABLE && params.vectorKernels && to - from >= MIN_BATCH;
+    }
+
+    static int newtonianAcceleration(BlackHoleSnapshot bhs, double[] x, double[] y, double[] outAx, double[] outAy,
+                                     int from, int to, PhysicsParams params) {
+        if (!useVector(params, from, to)) return from;
+        return VectorGravityKernels.newtonianAcceleration(bhs.x, bhs.y, bhs.gm, bhs.size(),
+                params.softening * params.softening, params.maxAcceleration, x, y, outAx, outAy, from, to);
+    }
+
+    static int paczynskiWiitaAcceleration(BlackHoleSnapshot bhs, double[] x, double[] y, double[] outAx, double[] outAy,
+                                          int from, int to, PhysicsParams params) {
+        if (!useVector(params, from, to)) return from;
+        return VectorGravityKernels.paczynskiWiitaAcceleration(bhs.x, bhs.y, bhs.gm, bhs.rs, bhs.size(),
+                params.softening * 0.15, params.maxAcceleration, x, y, outAx, outAy, from, to);
+    }
+
+    static int newtonianPotential(BlackHoleSnapshot bhs, double[] x, double[] y, double[] outPhi,
+                                  int from, int to, PhysicsParams params) {
+        if (!useVector(params, from, to)) return from;
+        return VectorGravityKernels.newtonianPotential(bhs.x, bhs.y, bhs.gm, bhs.size(),
+                params.softening * params.softening, x, y, outPhi, from, to);
+    }
+
+    static int paczynskiWiitaPotential(BlackHoleSnapshot bhs, double[] x, double[] y, double[] outPhi,
+                                       int from, int to, PhysicsParams params) {
+        if (!useVector(params, from, to)) return from;
+        return VectorGravityKernels.paczynskiWiitaPotential(bhs.x, bhs.y, bhs.gm, bhs.rs, bhs.size(),
+                x, y, outPhi, from, to);
+    }
+}
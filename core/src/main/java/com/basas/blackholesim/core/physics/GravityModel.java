@@ -0,0 +1,34 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Vec2;
+
+import java.util.List;
+
+public interface GravityModel {
+
+    String name();
+
+    void acceleration(List<BlackHole> blackHoles, Vec2 pos, Vec2 vel, PhysicsParams params, Vec2 outAcc);
+
+    void accelerationBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outAx, double[] outAy,
+                           int from, int to, PhysicsParams params);
+
+    double eventHorizonRadius(BlackHole bh, PhysicsParams params);
+
+    double potential(List<BlackHole> blackHoles, Vec2 pos, PhysicsParams params);
+
+    void potentialBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outPhi,
+                        int from, int to, PhysicsParams params);
+
+    // Single point-mass terms (gm = G*M, rs = 2GM/c^2) at distance r, used by BarnesHutTree for leaves and cells.
+    double radialAcceleration(double gm, double rs, double r, PhysicsParams params);
+
+    double radialPotential(double gm, double rs, double r, PhysicsParams params);
+
+    // Called on the simulation thread after each snapshot refresh, before workers use the batch methods.
+    default void prepare(BlackHoleSnapshot blackHoles, PhysicsParams params) {}
+
+    // Changes when the batch methods start returning a different field for the same snapshot and params.
+    default long fieldRevision() { return 0; }
+}
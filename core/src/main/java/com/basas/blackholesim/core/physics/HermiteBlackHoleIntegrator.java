@@ -0,0 +1,283 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Fourth-order Hermite predictor-corrector for the black holes themselves,
+ * with Aarseth individual timesteps on power-of-two blocks of the frame dt.
+ * Forces are the same softened Newtonian pair forces as the direct kick,
+ *
+ *   a_i = sum G m_j r_ij / (r_ij^2 + eps^2)^(3/2),
+ *
+ * plus their time derivative (jerk). Each block step predicts every hole to
+ * the block time from (x, v, a, j), re-evaluates a and j for the holes whose
+ * step ends there, and corrects those with the snap and crackle interpolated
+ * from both ends of the step. The new step is
+ *
+ *   dt_i = sqrt(eta (|a| |a''| + |a'|^2) / (|a'| |a'''| + |a''|^2)),
+ *
+ * rounded down to dt / 2^l. A hole may halve its level only at times aligned
+ * to the coarser block, so all holes are synchronised again at the end of the
+ * frame. A close binary therefore subdivides only its own steps, and the
+ * rest of the simulation keeps the frame dt.
+ *
+ * Levels carry over between frames while the set of holes is unchanged; a
+ * and j are recomputed at the start of every frame, since merges, GW
+ * reaction and user edits move the holes in between.
+ */
+public final class HermiteBlackHoleIntegrator {
+
+    public static final int MAX_LEVELS = 24;
+
+    private volatile int maxLevel = 16;
+    private volatile double eta = 0.02;
+    private volatile double startEta = 0.01;
+
+    private int n = 0;
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] gm = new double[0];
+    private double[] ax = new double[0];
+    private double[] ay = new double[0];
+    private double[] jx = new double[0];
+    private double[] jy = new double[0];
+    // Predicted state at the current block time.
+    private double[] px = new double[0];
+    private double[] py = new double[0];
+    private double[] pvx = new double[0];
+    private double[] pvy = new double[0];
+    // Own time in ticks of dt / 2^maxLevel, and block level.
+    private long[] time = new long[0];
+    private int[] level = new int[0];
+    private int[] active = new int[0];
+    // a and a' of the active holes at the end of their step, from the predicted state of all holes.
+    private double[] nax = new double[0];
+    private double[] nay = new double[0];
+    private double[] njx = new double[0];
+    private double[] njy = new double[0];
+
+    private BlackHole[] owners = new BlackHole[0];
+    private int ownerMaxLevel = -1;
+
+    private long lastSteps = 0;
+    private int lastFinestLevel = 0;
+
+    public int getMaxLevel() { return maxLevel; }
+
+    // Finest level; a hole takes at most 2^maxLevel steps per frame.
+    public void setMaxLevel(int maxLevel) {
+        this.maxLevel = Math.max(0, Math.min(MAX_LEVELS, maxLevel));
+    }
+
+    public double getEta() { return eta; }
+
+    public void setEta(double eta) {
+        this.eta = Math.max(1e-6, eta);
+    }
+
+    public double getStartEta() { return startEta; }
+
+    // Accuracy of the first step of a hole, taken from |a| / |a'| alone.
+    public void setStartEta(double startEta) {
+        this.startEta = Math.max(1e-6, startEta);
+    }
+
+    // Corrector steps over all holes in the last call to step().
+    public long lastSteps() { return lastSteps; }
+
+    public int lastFinestLevel() { return lastFinestLevel; }
+
+    public void step(List<BlackHole> blackHoles, PhysicsParams params, double dt) {
+        lastSteps = 0;
+        lastFinestLevel = 0;
+        if (dt <= 0 || blackHoles.size() < 2) return;
+
+        int levels = maxLevel;
+        load(blackHoles, params, levels);
+        double eps2 = params.softening * params.softening;
+        long ticks = 1L << levels;
+        double tick = dt / ticks;
+
+        for (int i = 0; i < n; i++) {
+            forceAndJerk(i, x, y, vx, vy, eps2, ax, ay, jx, jy);
+            time[i] = 0;
+            if (level[i] < 0) {
+                double a = Math.hypot(ax[i], ay[i]);
+                double j = Math.hypot(jx[i], jy[i]);
+                level[i] = levelFor(j > 0 ? startEta * a / j : dt, dt, levels);
+            }
+        }
+
+        long t = 0;
+        while (t < ticks) {
+            long next = ticks;
+            for (int i = 0; i < n; i++) {
+                next = Math.min(next, time[i] + (ticks >> level[i]));
+            }
+
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                predict(i, (next - time[i]) * tick);
+                if (time[i] + (ticks >> level[i]) == next) active[m++] = i;
+            }
+
+            for (int k = 0; k < m; k++) {
+                int i = active[k];
+                forceAndJerk(i, px, py, pvx, pvy, eps2, nax, nay, njx, njy);
+            }
+            for (int k = 0; k < m; k++) {
+                int i = active[k];
+                correct(i, (ticks >> level[i]) * tick, dt, next, ticks, levels);
+                time[i] = next;
+            }
+
+            lastSteps += m;
+            t = next;
+        }
+
+        for (int i = 0; i < n; i++) {
+            BlackHole bh = blackHoles.get(i);
+            bh.getPosition().x = x[i];
+            bh.getPosition().y = y[i];
+            bh.getVelocity().x = vx[i];
+            bh.getVelocity().y = vy[i];
+            lastFinestLevel = Math.max(lastFinestLevel, level[i]);
+        }
+    }
+
+    private void load(List<BlackHole> blackHoles, PhysicsParams params, int levels) {
+        int count = blackHoles.size();
+        if (x.length < count) {
+            int cap = Math.max(count, x.length * 2);
+            x = Arrays.copyOf(x, cap);
+            y = Arrays.copyOf(y, cap);
+            vx = Arrays.copyOf(vx, cap);
+            vy = Arrays.copyOf(vy, cap);
+            gm = Arrays.copyOf(gm, cap);
+            ax = Arrays.copyOf(ax, cap);
+            ay = Arrays.copyOf(ay, cap);
+            jx = Arrays.copyOf(jx, cap);
+            jy = Arrays.copyOf(jy, cap);
+            px = Arrays.copyOf(px, cap);
+            py = Arrays.copyOf(py, cap);
+            pvx = Arrays.copyOf(pvx, cap);
+            pvy = Arrays.copyOf(pvy, cap);
+            time = Arrays.copyOf(time, cap);
+            level = Arrays.copyOf(level, cap);
+            active = Arrays.copyOf(active, cap);
+            nax = Arrays.copyOf(nax, cap);
+            nay = Arrays.copyOf(nay, cap);
+            njx = Arrays.copyOf(njx, cap);
+            njy = Arrays.copyOf(njy, cap);
+            owners = Arrays.copyOf(owners, cap);
+        }
+
+        // Levels are only meaningful for the same holes in the same order and the same block depth.
+        boolean same = count == n && levels == ownerMaxLevel;
+        for (int i = 0; i < count && same; i++) {
+            same = owners[i] == blackHoles.get(i);
+        }
+
+        n = count;
+        ownerMaxLevel = levels;
+        for (int i = 0; i < count; i++) {
+            BlackHole bh = blackHoles.get(i);
+            x[i] = bh.getPosition().x;
+            y[i] = bh.getPosition().y;
+            vx[i] = bh.getVelocity().x;
+            vy[i] = bh.getVelocity().y;
+            gm[i] = params.G * bh.getMass();
+            owners[i] = bh;
+            if (!same) level[i] = -1;
+        }
+    }
+
+    // a and a' of hole i against the positions and velocities in (sx, sy, svx, svy).
+    private void forceAndJerk(int i, double[] sx, double[] sy, double[] svx, double[] svy, double eps2,
+                              double[] oax, double[] oay, double[] ojx, double[] ojy) {
+        double xi = sx[i], yi = sy[i], vxi = svx[i], vyi = svy[i];
+        double accX = 0, accY = 0, jerkX = 0, jerkY = 0;
+        for (int k = 0; k < n; k++) {
+            if (k == i) continue;
+            double dx = sx[k] - xi;
+            double dy = sy[k] - yi;
+            double dvx = svx[k] - vxi;
+            double dvy = svy[k] - vyi;
+            double r2 = dx * dx + dy * dy + eps2;
+            double inv2 = 1.0 / r2;
+            double f = gm[k] * inv2 * Math.sqrt(inv2);
+            double rv = 3.0 * (dx * dvx + dy * dvy) * inv2;
+            accX += f * dx;
+            accY += f * dy;
+            jerkX += f * (dvx - rv * dx);
+            jerkY += f * (dvy - rv * dy);
+        }
+        oax[i] = accX;
+        oay[i] = accY;
+        ojx[i] = jerkX;
+        ojy[i] = jerkY;
+    }
+
+    private void predict(int i, double h) {
+        double h2 = h * h * 0.5;
+        double h3 = h2 * h / 3.0;
+        px[i] = x[i] + h * vx[i] + h2 * ax[i] + h3 * jx[i];
+        py[i] = y[i] + h * vy[i] + h2 * ay[i] + h3 * jy[i];
+        pvx[i] = vx[i] + h * ax[i] + h2 * jx[i];
+        pvy[i] = vy[i] + h * ay[i] + h2 * jy[i];
+    }
+
+    private void correct(int i, double h, double dt, long now, long ticks, int levels) {
+        double a0x = ax[i], a0y = ay[i], j0x = jx[i], j0y = jy[i];
+        double a1x = nax[i], a1y = nay[i], j1x = njx[i], j1y = njy[i];
+
+        // Snap and crackle at the start of the step from the Hermite interpolant.
+        double h2 = h * h;
+        double s0x = (-6.0 * (a0x - a1x) - h * (4.0 * j0x + 2.0 * j1x)) / h2;
+        double s0y = (-6.0 * (a0y - a1y) - h * (4.0 * j0y + 2.0 * j1y)) / h2;
+        double cx = (12.0 * (a0x - a1x) + 6.0 * h * (j0x + j1x)) / (h2 * h);
+        double cy = (12.0 * (a0y - a1y) + 6.0 * h * (j0y + j1y)) / (h2 * h);
+
+        double h4 = h2 * h2 / 24.0;
+        double h5 = h4 * h / 5.0;
+        double h3 = h2 * h / 6.0;
+        x[i] = px[i] + h4 * s0x + h5 * cx;
+        y[i] = py[i] + h4 * s0y + h5 * cy;
+        vx[i] = pvx[i] + h3 * s0x + h4 * cx;
+        vy[i] = pvy[i] + h3 * s0y + h4 * cy;
+        ax[i] = a1x;
+        ay[i] = a1y;
+        jx[i] = j1x;
+        jy[i] = j1y;
+
+        double s1x = s0x + h * cx;
+        double s1y = s0y + h * cy;
+        double a = Math.hypot(a1x, a1y);
+        double j = Math.hypot(j1x, j1y);
+        double s = Math.hypot(s1x, s1y);
+        double c = Math.hypot(cx, cy);
+        double den = j * c + s * s;
+        double wanted = den > 0 ? Math.sqrt(eta * (a * s + j * j) / den) : dt;
+
+        int l = level[i];
+        int target = levelFor(wanted, dt, levels);
+        if (target > l) {
+            level[i] = target;
+        } else if (target < l && l > 0 && now % (ticks >> (l - 1)) == 0) {
+            level[i] = l - 1;
+        }
+    }
+
+    // Coarsest level whose step dt / 2^l does not exceed the wanted step.
+    private static int levelFor(double wanted, double dt, int levels) {
+        if (!(wanted > 0)) return levels;
+        if (wanted >= dt) return 0;
+        int l = Math.getExponent(dt / wanted) + 1;
+        return Math.max(0, Math.min(levels, l));
+    }
+}
@@ -7,6 +7,6 @@ public interface Integrator {
 
     String name();
 
-    
+    // Only marks particles dead (ParticleStore.kill); the engine compacts the store once after the step.
     void step(SimulationEngine engine, double dt, boolean pushTrails);
 }
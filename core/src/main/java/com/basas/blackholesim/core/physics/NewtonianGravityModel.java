@@ -0,0 +1,148 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Vec2;
+
+import java.util.List;
+
+
+public class NewtonianGravityModel implements GravityModel {
+
+    @Override
+    public String name() {
+        return "Newtonian";
+    }
+
+    @Override
+    public void acceleration(List<BlackHole> blackHoles, Vec2 pos, Vec2 vel, PhysicsParams params, Vec2 outAcc) {
+        double ax = 0.0;
+        double ay = 0.0;
+
+        double soft2 = params.softening * params.softening;
+
+        for (BlackHole bh : blackHoles) {
+            double dx = bh.getPosition().x - pos.x;
+            double dy = bh.getPosition().y - pos.y;
+
+            double r2 = dx * dx + dy * dy;
+            double r = Math.sqrt(Math.max(1e-12, r2));
+
+            double denom = (r2 + soft2);
+            double aMag = (params.G * bh.getMass()) / denom;
+
+            double nx = dx / r;
+            double ny = dy / r;
+
+            ax += nx * aMag;
+            ay += ny * aMag;
+        }
+
+        
+        double aLen = Math.sqrt(ax * ax + ay * ay);
+        if (aLen > params.maxAcceleration) {
+            double k = params.maxAcceleration / Math.max(1e-12, aLen);
+            ax *= k;
+            ay *= k;
+        }
+
+        outAcc.x = ax;
+        outAcc.y = ay;
+    }
+
+    @Override
+    public void accelerationBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outAx, double[] outAy,
+                                  int from, int to, PhysicsParams params) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        double[] gm = blackHoles.gm;
+
+        double soft2 = params.softening * params.softening;
+        double maxAcc = params.maxAcceleration;
+
+        int start = GravityKernels.newtonianAcceleration(blackHoles, x, y, outAx, outAy, from, to, params);
+        for (int i = start; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            double ax = 0.0;
+            double ay = 0.0;
+
+            for (int j = 0; j < n; j++) {
+                double dx = bx[j] - px;
+                double dy = by[j] - py;
+
+                double r2 = dx * dx + dy * dy;
+                double r = Math.sqrt(Math.max(1e-12, r2));
+
+                double aMag = gm[j] / (r2 + soft2);
+
+                ax += (dx / r) * aMag;
+                ay += (dy / r) * aMag;
+            }
+
+            double aLen = Math.sqrt(ax * ax + ay * ay);
+            if (aLen > maxAcc) {
+                double k = maxAcc / Math.max(1e-12, aLen);
+                ax *= k;
+                ay *= k;
+            }
+
+            outAx[i] = ax;
+            outAy[i] = ay;
+        }
+    }
+
+    @Override
+    public double eventHorizonRadius(BlackHole bh, PhysicsParams params) {
+        return bh.derived(params).rs();
+    }
+
+    @Override
+    public double radialAcceleration(double gm, double rs, double r, PhysicsParams params) {
+        return gm / (r * r + params.softening * params.softening);
+    }
+
+    @Override
+    public double radialPotential(double gm, double rs, double r, PhysicsParams params) {
+        return -gm / Math.max(1e-12, Math.sqrt(r * r + params.softening * params.softening));
+    }
+
+    @Override
+    public double potential(List<BlackHole> blackHoles, Vec2 pos, PhysicsParams params) {
+        double soft2 = params.softening * params.softening;
+        double phi = 0.0;
+
+        for (BlackHole bh : blackHoles) {
+            double dx = bh.getPosition().x - pos.x;
+            double dy = bh.getPosition().y - pos.y;
+            double r2 = dx * dx + dy * dy;
+            double r = Math.sqrt(r2 + soft2);
+
+            phi += -(params.G * bh.getMass()) / Math.max(1e-12, r);
+        }
+        return phi;
+    }
+
+    @Override
+    public void potentialBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outPhi,
+                               int from, int to, PhysicsParams params) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        double[] gm = blackHoles.gm;
+        double soft2 = params.softening * params.softening;
+
+        int start = GravityKernels.newtonianPotential(blackHoles, x, y, outPhi, from, to, params);
+        for (int i = start; i < to; i++) {
+            double phi = 0.0;
+            for (int j = 0; j < n; j++) {
+                double dx = bx[j] - x[i];
+                double dy = by[j] - y[i];
+                double r = Math.sqrt(dx * dx + dy * dy + soft2);
+
+                phi -= gm[j] / Math.max(1e-12, r);
+            }
+            outPhi[i] = phi;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.math.Vec2;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+public class PaczynskiWiitaGravityModel implements GravityModel {
+
+    // One RadialTable per snapshot slot, rebuilt in prepare() only when the hole's G*M, rs or softening changes.
+    private RadialTable[] tables = new RadialTable[0];
+
+    @Override
+    public String name() {
+        return "Paczynski–Wiita";
+    }
+
+    @Override
+    public void acceleration(List<BlackHole> blackHoles, Vec2 pos, Vec2 vel, PhysicsParams params, Vec2 outAcc) {
+        double ax = 0.0;
+        double ay = 0.0;
+
+        double soft = params.softening;
+
+        for (BlackHole bh : blackHoles) {
+            double dx = bh.getPosition().x - pos.x;
+            double dy = bh.getPosition().y - pos.y;
+
+            double r2 = dx * dx + dy * dy;
+            double r = Math.sqrt(Math.max(1e-12, r2));
+
+            
+            double rs = (2.0 * params.G * bh.getMass()) / (params.c * params.c);
+
+            
+            double effectiveR = Math.max(rs + 1e-6, r);
+            double denom = (effectiveR - rs);
+
+            
+            denom = Math.max(1e-6, denom + soft * 0.15);
+
+            
+            double aMag = (params.G * bh.getMass()) / (denom * denom);
+
+            double nx = dx / r;
+            double ny = dy / r;
+
+            ax += nx * aMag;
+            ay += ny * aMag;
+        }
+
+        
+        double aLen = Math.sqrt(ax * ax + ay * ay);
+        if (aLen > params.maxAcceleration) {
+            double k = params.maxAcceleration / Math.max(1e-12, aLen);
+            ax *= k;
+            ay *= k;
+        }
+
+        outAcc.x = ax;
+        outAcc.y = ay;
+    }
+
+    @Override
+    public void accelerationBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outAx, double[] outAy,
+                                  int from, int to, PhysicsParams params) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        double[] gm = blackHoles.gm;
+        double[] rsArr = blackHoles.rs;
+
+        double softTerm = params.softening * 0.15;
+        double maxAcc = params.maxAcceleration;
+
+        int start = GravityKernels.paczynskiWiitaAcceleration(blackHoles, x, y, outAx, outAy, from, to, params);
+        if (start < to && tablesReady(blackHoles, params)) {
+            tabulatedAcceleration(blackHoles, x, y, outAx, outAy, start, to, softTerm, maxAcc);
+            return;
+        }
+        for (int i = start; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            double ax = 0.0;
+            double ay = 0.0;
+
+            for (int j = 0; j < n; j++) {
+                double dx = bx[j] - px;
+                double dy = by[j] - py;
+
+                double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+                double rs = rsArr[j];
+
+                double effectiveR = Math.max(rs + 1e-6, r);
+                double denom = Math.max(1e-6, (effectiveR - rs) + softTerm);
+
+                double aMag = gm[j] / (denom * denom);
+
+                ax += (dx / r) * aMag;
+                ay += (dy / r) * aMag;
+            }
+
+            double aLen = Math.sqrt(ax * ax + ay * ay);
+            if (aLen > maxAcc) {
+                double k = maxAcc / Math.max(1e-12, aLen);
+                ax *= k;
+                ay *= k;
+            }
+
+            outAx[i] = ax;
+            outAy[i] = ay;
+        }
+    }
+
+    @Override
+    public double eventHorizonRadius(BlackHole bh, PhysicsParams params) {
+        return bh.derived(params).rs();
+    }
+
+    @Override
+    public double radialAcceleration(double gm, double rs, double r, PhysicsParams params) {
+        double effectiveR = Math.max(rs + 1e-6, r);
+        double denom = Math.max(1e-6, (effectiveR - rs) + params.softening * 0.15);
+        return gm / (denom * denom);
+    }
+
+    @Override
+    public double radialPotential(double gm, double rs, double r, PhysicsParams params) {
+        return -gm / Math.max(1e-6, r - rs);
+    }
+
+    @Override
+    public double potential(List<BlackHole> blackHoles, Vec2 pos, PhysicsParams params) {
+        double phi = 0.0;
+
+        for (BlackHole bh : blackHoles) {
+            double dx = bh.getPosition().x - pos.x;
+            double dy = bh.getPosition().y - pos.y;
+            double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+
+            double rs = (2.0 * params.G * bh.getMass()) / (params.c * params.c);
+
+            double denom = Math.max(1e-6, (r - rs));
+            phi += -(params.G * bh.getMass()) / denom;
+        }
+        return phi;
+    }
+
+    @Override
+    public void potentialBatch(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outPhi,
+                               int from, int to, PhysicsParams params) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        double[] gm = blackHoles.gm;
+        double[] rs = blackHoles.rs;
+
+        int start = GravityKernels.paczynskiWiitaPotential(blackHoles, x, y, outPhi, from, to, params);
+        if (start < to && tablesReady(blackHoles, params)) {
+            tabulatedPotential(blackHoles, x, y, outPhi, start, to);
+            return;
+        }
+        for (int i = start; i < to; i++) {
+            double phi = 0.0;
+            for (int j = 0; j < n; j++) {
+                double dx = bx[j] - x[i];
+                double dy = by[j] - y[i];
+                double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+
+                phi -= gm[j] / Math.max(1e-6, r - rs[j]);
+            }
+            outPhi[i] = phi;
+        }
+    }
+
+    @Override
+    public void prepare(BlackHoleSnapshot blackHoles, PhysicsParams params) {
+        if (!params.radialTables) return;
+
+        int n = blackHoles.size();
+        if (tables.length < n) {
+            int old = tables.length;
+            tables = Arrays.copyOf(tables, Math.max(n, old * 2));
+            for (int j = old; j < tables.length; j++) tables[j] = new RadialTable();
+        }
+
+        double softTerm = params.softening * 0.15;
+        for (int j = 0; j < n; j++) {
+            double gm = blackHoles.gm[j];
+            double rs = blackHoles.rs[j];
+            if (tables[j].matches(gm, rs, softTerm)) continue;
+
+            // Holes shift slots when one is removed; take a matching table from another slot before rebuilding.
+            for (int k = j + 1; k < tables.length; k++) {
+                if (tables[k].matches(gm, rs, softTerm)) {
+                    RadialTable t = tables[j];
+                    tables[j] = tables[k];
+                    tables[k] = t;
+                    break;
+                }
+            }
+            tables[j].build(gm, rs, softTerm);
+        }
+    }
+
+    // Tables are only used when prepare() has built them for exactly this snapshot and softening.
+    private boolean tablesReady(BlackHoleSnapshot blackHoles, PhysicsParams params) {
+        if (!params.radialTables) return false;
+        int n = blackHoles.size();
+        if (tables.length < n) return false;
+        double softTerm = params.softening * 0.15;
+        for (int j = 0; j < n; j++) {
+            if (!tables[j].matches(blackHoles.gm[j], blackHoles.rs[j], softTerm)) return false;
+        }
+        return true;
+    }
+
+    private void tabulatedAcceleration(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outAx,
+                                       double[] outAy, int from, int to, double softTerm, double maxAcc) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        RadialTable[] tables = this.tables;
+
+        for (int i = from; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            double ax = 0.0;
+            double ay = 0.0;
+
+            for (int j = 0; j < n; j++) {
+                RadialTable t = tables[j];
+                double dx = bx[j] - px;
+                double dy = by[j] - py;
+                double d = dx * dx + dy * dy - blackHoles.rs[j] * blackHoles.rs[j];
+
+                // |a| / r, so the direction needs no normalisation.
+                double g;
+                if (d >= t.minD() && d < t.maxD()) {
+                    g = t.lookupAcceleration(d);
+                } else {
+                    double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+                    double rs = blackHoles.rs[j];
+                    double denom = Math.max(1e-6, (Math.max(rs + 1e-6, r) - rs) + softTerm);
+                    g = blackHoles.gm[j] / (denom * denom * r);
+                }
+
+                ax += dx * g;
+                ay += dy * g;
+            }
+
+            double aLen = Math.sqrt(ax * ax + ay * ay);
+            if (aLen > maxAcc) {
+                double k = maxAcc / Math.max(1e-12, aLen);
+                ax *= k;
+                ay *= k;
+            }
+
+            outAx[i] = ax;
+            outAy[i] = ay;
+        }
+    }
+
+    private void tabulatedPotential(BlackHoleSnapshot blackHoles, double[] x, double[] y, double[] outPhi,
+                                    int from, int to) {
+        int n = blackHoles.size();
+        double[] bx = blackHoles.x;
+        double[] by = blackHoles.y;
+        RadialTable[] tables = this.tables;
+
+        for (int i = from; i < to; i++) {
+            double phi = 0.0;
+            for (int j = 0; j < n; j++) {
+                RadialTable t = tables[j];
+                double dx = bx[j] - x[i];
+                double dy = by[j] - y[i];
+                double d = dx * dx + dy * dy - blackHoles.rs[j] * blackHoles.rs[j];
+
+                if (d >= t.minD() && d < t.maxD()) {
+                    phi += t.lookupPotential(d);
+                } else {
+                    double r = Math.sqrt(Math.max(1e-12, dx * dx + dy * dy));
+                    phi -= blackHoles.gm[j] / Math.max(1e-6, r - blackHoles.rs[j]);
+                }
+            }
+            outPhi[i] = phi;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.ParticleExecutor;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+import java.util.Arrays;
+
+/*
+ * Particle-mesh self-gravity. Particle mass is deposited with cloud-in-cell onto
+ * an n x n grid around the particles, the potential is obtained by FFT
+ * convolution with the free-space Green's function -G / sqrt(r^2 + eps^2) on a
+ * zero-padded 2n x 2n grid (Hockney-Eastwood, so there are no periodic images),
+ * and the finite-difference field is interpolated back with the same CIC weights.
+ *
+ * The disk is a thin sheet in 3D space, so the mesh convolves with the 3D kernel
+ * instead of inverting a 2D Laplacian. Cost per solve is O(N + n^2 log n).
+ */
+public final class ParticleMesh {
+
+    private int n = 0;
+    private int m = 0;
+    private int slices = 1;
+
+    private double originX, originY, h;
+    private boolean solved = false;
+
+    private double[] re = new double[0];
+    private double[] im = new double[0];
+    private double[][] partial = new double[0][];
+
+    // FFT of the Green's function, scaled by 1/m^2 for the unnormalised inverse transform; real since g is even.
+    private double[] green = new double[0];
+    private double greenH = Double.NaN;
+    private double greenEps = Double.NaN;
+    private double greenG = Double.NaN;
+
+    private double[] phi = new double[0];
+    private double[] gx = new double[0];
+    private double[] gy = new double[0];
+
+    private double[] cos = new double[0];
+    private double[] sin = new double[0];
+    private int[] rev = new int[0];
+
+    public boolean isSolved() { return solved; }
+
+    public int gridSize() { return n; }
+
+    public double cellSize() { return h; }
+
+    public void clear() { solved = false; }
+
+    public void solve(ParticleStore ps, BlackHoleSnapshot blackHoles, PhysicsParams params, ParticleExecutor executor) {
+        solved = false;
+        int count = ps.size();
+        if (count == 0) return;
+
+        resize(Integer.highestOneBit(Math.max(16, params.meshSize) - 1) << 1, executor.getThreadCount());
+
+        if (!fitBox(ps, count, blackHoles, params.meshMaxExtent)) return;
+
+        double eps = Math.max(params.softening, h);
+        if (h != greenH || eps != greenEps || params.G != greenG) {
+            buildGreen(params.G, eps, executor);
+        }
+
+        deposit(ps, count, params.particleMass, executor);
+        convolve(executor);
+        differentiate(executor);
+        solved = true;
+    }
+
+    private void resize(int size, int threads) {
+        if (size != n) {
+            n = size;
+            m = 2 * size;
+            re = new double[m * m];
+            im = new double[m * m];
+            green = new double[m * m];
+            phi = new double[n * n];
+            gx = new double[n * n];
+            gy = new double[n * n];
+            partial = new double[0][];
+            greenH = Double.NaN;
+
+            cos = new double[m / 2];
+            sin = new double[m / 2];
+            for (int k = 0; k < m / 2; k++) {
+                cos[k] = Math.cos(2.0 * Math.PI * k / m);
+                sin[k] = Math.sin(2.0 * Math.PI * k / m);
+            }
+            rev = new int[m];
+            int bits = Integer.numberOfTrailingZeros(m);
+            for (int i = 0; i < m; i++) rev[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        slices = Math.max(1, threads);
+        if (partial.length != slices) {
+            partial = new double[slices][n * n];
+        }
+    }
+
+    // Square box over the alive particles, clipped to maxExtent around the holes; false if nothing to deposit.
+    private boolean fitBox(ParticleStore ps, int count, BlackHoleSnapshot blackHoles, double maxExtent) {
+        double cx = 0.0, cy = 0.0, mass = 0.0;
+        for (int j = 0; j < blackHoles.size(); j++) {
+            cx += blackHoles.mass[j] * blackHoles.x[j];
+            cy += blackHoles.mass[j] * blackHoles.y[j];
+            mass += blackHoles.mass[j];
+        }
+        if (mass > 0.0) {
+            cx /= mass;
+            cy /= mass;
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (!ps.isAlive(i) || ps.hasFlag(i, ParticleStore.FLAG_PHOTON)) continue;
+            minX = Math.min(minX, ps.x[i]);
+            minY = Math.min(minY, ps.y[i]);
+            maxX = Math.max(maxX, ps.x[i]);
+            maxY = Math.max(maxY, ps.y[i]);
+        }
+        if (minX > maxX) return false;
+
+        minX = Math.max(minX, cx - maxExtent);
+        minY = Math.max(minY, cy - maxExtent);
+        maxX = Math.min(maxX, cx + maxExtent);
+        maxY = Math.min(maxY, cy + maxExtent);
+        if (minX > maxX || minY > maxY) return false;
+
+        // Two spare cells per side for CIC and the central differences; h is rounded up to a
+        // 2^(1/8) step so the Green's function only needs rebuilding when the cloud resizes noticeably.
+        double span = Math.max(1e-6, Math.max(maxX - minX, maxY - minY));
+        double raw = span / (n - 5);
+        h = Math.pow(2.0, Math.ceil(8.0 * Math.log(raw) / Math.log(2.0)) / 8.0);
+        originX = 0.5 * (minX + maxX) - 0.5 * (n - 1) * h;
+        originY = 0.5 * (minY + maxY) - 0.5 * (n - 1) * h;
+        return true;
+    }
+
+    private void buildGreen(double G, double eps, ParticleExecutor executor) {
+        double eps2 = eps * eps;
+        double scale = 1.0 / ((double) m * m);
+        executor.forSlices(m, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) {
+                double dy = (y <= m / 2 ? y : y - m) * h;
+                int row = y * m;
+                for (int x = 0; x < m; x++) {
+                    double dx = (x <= m / 2 ? x : x - m) * h;
+                    re[row + x] = -G * scale / Math.sqrt(dx * dx + dy * dy + eps2);
+                    im[row + x] = 0.0;
+                }
+            }
+        });
+        forward(m, executor);
+        System.arraycopy(re, 0, green, 0, (m / 2 + 1) * m);
+
+        greenH = h;
+        greenEps = eps;
+        greenG = G;
+    }
+
+    private void deposit(ParticleStore ps, int count, double particleMass, ParticleExecutor executor) {
+        double inv = 1.0 / h;
+        int used = Math.min(slices, count);
+        executor.forSlices(count, used, (s, from, to) -> {
+            double[] grid = partial[s];
+            Arrays.fill(grid, 0.0);
+            for (int i = from; i < to; i++) {
+                if (!ps.isAlive(i) || ps.hasFlag(i, ParticleStore.FLAG_PHOTON)) continue;
+                double fx = (ps.x[i] - originX) * inv;
+                double fy = (ps.y[i] - originY) * inv;
+                int ix = (int) Math.floor(fx);
+                int iy = (int) Math.floor(fy);
+                if (ix < 0 || iy < 0 || ix >= n - 1 || iy >= n - 1) continue;
+
+                double tx = fx - ix;
+                double ty = fy - iy;
+                int k = iy * n + ix;
+                grid[k] += particleMass * (1 - tx) * (1 - ty);
+                grid[k + 1] += particleMass * tx * (1 - ty);
+                grid[k + n] += particleMass * (1 - tx) * ty;
+                grid[k + n + 1] += particleMass * tx * ty;
+            }
+        });
+
+        executor.forSlices(m, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * m;
+                if (y >= n) {
+                    Arrays.fill(re, row, row + m, 0.0);
+                } else {
+                    for (int x = 0; x < n; x++) {
+                        double sum = 0.0;
+                        for (int k = 0; k < used; k++) sum += partial[k][y * n + x];
+                        re[row + x] = sum;
+                    }
+                    Arrays.fill(re, row + n, row + m, 0.0);
+                }
+                Arrays.fill(im, row, row + m, 0.0);
+            }
+        });
+    }
+
+    private void convolve(ParticleExecutor executor) {
+        // Only the first n rows carry mass before the first pass, only the first n are needed after the last.
+        forward(n, executor);
+        executor.forSlices((m / 2 + 1) * m, slices, (s, from, to) -> {
+            for (int k = from; k < to; k++) {
+                re[k] *= green[k];
+                im[k] *= green[k];
+            }
+        });
+        inverse(n, executor);
+
+        executor.forSlices(n, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) System.arraycopy(re, y * m, phi, y * n, n);
+        });
+    }
+
+    /*
+     * Row FFTs over the first 'rows' rows, transpose, then FFTs along ky: the result is in [kx][ky] order.
+     * Input is real, so rows kx > m/2 are conjugate mirrors and only kx = 0..m/2 are transformed and used.
+     */
+    private void forward(int rows, ParticleExecutor executor) {
+        executor.forSlices(rows, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) fft(y * m, false);
+        });
+        transpose(executor);
+        executor.forSlices(m / 2 + 1, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) fft(y * m, false);
+        });
+    }
+
+    private void inverse(int rows, ParticleExecutor executor) {
+        executor.forSlices(m / 2 + 1, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) fft(y * m, true);
+        });
+        executor.forSlices(m / 2 - 1, slices, (s, from, to) -> {
+            for (int k = m / 2 + 1 + from; k < m / 2 + 1 + to; k++) {
+                int dst = k * m;
+                int src = (m - k) * m;
+                for (int y = 0; y < m; y++) {
+                    re[dst + y] = re[src + y];
+                    im[dst + y] = -im[src + y];
+                }
+            }
+        });
+        transpose(executor);
+        executor.forSlices(rows, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) fft(y * m, true);
+        });
+    }
+
+    private void transpose(ParticleExecutor executor) {
+        executor.forSlices(m, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) {
+                for (int x = y + 1; x < m; x++) {
+                    int a = y * m + x;
+                    int b = x * m + y;
+                    double t = re[a]; re[a] = re[b]; re[b] = t;
+                    t = im[a]; im[a] = im[b]; im[b] = t;
+                }
+            }
+        });
+    }
+
+    // In-place iterative radix-2 FFT of one row; the inverse is unnormalised.
+    private void fft(int off, boolean inverse) {
+        double[] re = this.re;
+        double[] im = this.im;
+        for (int i = 0; i < m; i++) {
+            int j = rev[i];
+            if (j > i) {
+                double t = re[off + i]; re[off + i] = re[off + j]; re[off + j] = t;
+                t = im[off + i]; im[off + i] = im[off + j]; im[off + j] = t;
+            }
+        }
+        double sign = inverse ? 1.0 : -1.0;
+        for (int len = 2; len <= m; len <<= 1) {
+            int half = len >> 1;
+            int step = m / len;
+            for (int i = 0; i < m; i += len) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * step];
+                    double wi = sign * sin[k * step];
+                    int a = off + i + k;
+                    int b = a + half;
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    private void differentiate(ParticleExecutor executor) {
+        double inv2h = 0.5 / h;
+        double invh = 1.0 / h;
+        executor.forSlices(n, slices, (s, from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * n;
+                for (int x = 0; x < n; x++) {
+                    int k = row + x;
+                    if (x == 0) gx[k] = -(phi[k + 1] - phi[k]) * invh;
+                    else if (x == n - 1) gx[k] = -(phi[k] - phi[k - 1]) * invh;
+                    else gx[k] = -(phi[k + 1] - phi[k - 1]) * inv2h;
+
+                    if (y == 0) gy[k] = -(phi[k + n] - phi[k]) * invh;
+                    else if (y == n - 1) gy[k] = -(phi[k] - phi[k - n]) * invh;
+                    else gy[k] = -(phi[k + n] - phi[k - n]) * inv2h;
+                }
+            }
+        });
+    }
+
+    // Adds the interpolated self-gravity field; positions off the mesh get nothing.
+    public void addAcceleration(double[] x, double[] y, double[] outAx, double[] outAy, int from, int to) {
+        double inv = 1.0 / h;
+        for (int i = from; i < to; i++) {
+            double fx = (x[i] - originX) * inv;
+            double fy = (y[i] - originY) * inv;
+            int ix = (int) Math.floor(fx);
+            int iy = (int) Math.floor(fy);
+            if (ix < 0 || iy < 0 || ix >= n - 1 || iy >= n - 1) continue;
+
+            double tx = fx - ix;
+            double ty = fy - iy;
+            int k = iy * n + ix;
+            double w00 = (1 - tx) * (1 - ty), w10 = tx * (1 - ty), w01 = (1 - tx) * ty, w11 = tx * ty;
+            outAx[i] += w00 * gx[k] + w10 * gx[k + 1] + w01 * gx[k + n] + w11 * gx[k + n + 1];
+            outAy[i] += w00 * gy[k] + w10 * gy[k + 1] + w01 * gy[k + n] + w11 * gy[k + n + 1];
+        }
+    }
+
+    public void addPotential(double[] x, double[] y, double[] outPhi, int from, int to, double factor) {
+        double inv = 1.0 / h;
+        for (int i = from; i < to; i++) {
+            double fx = (x[i] - originX) * inv;
+            double fy = (y[i] - originY) * inv;
+            int ix = (int) Math.floor(fx);
+            int iy = (int) Math.floor(fy);
+            if (ix < 0 || iy < 0 || ix >= n - 1 || iy >= n - 1) continue;
+
+            double tx = fx - ix;
+            double ty = fy - iy;
+            int k = iy * n + ix;
+            outPhi[i] += factor * ((1 - tx) * (1 - ty) * phi[k] + tx * (1 - ty) * phi[k + 1]
+                    + (1 - tx) * ty * phi[k + n] + tx * ty * phi[k + n + 1]);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.basas.blackholesim.core.physics;
+
+
+public class PhysicsParams {
+
+    public double G = 520.0;
+
+    public double c = 1200.0;
+
+    public double softening = 18.0;
+
+    public double maxAcceleration = 18000.0;
+
+    public double killDistance = 120_000.0;
+
+    public RelativityMode relativityMode = RelativityMode.SCHWARZSCHILD;
+
+    public boolean enableAccretionDisk = true;
+
+    public boolean enableBHDynamics = true;
+
+    public double gwLossStrength = 0.35;
+
+    // Black holes below the tree threshold move with HermiteBlackHoleIntegrator (own substeps inside the
+    // frame); off falls back to one symplectic Euler kick-drift per frame.
+    public boolean hermiteBlackHoles = true;
+
+    public boolean vectorKernels = true;
+
+    // Barnes-Hut opening angle; 0 disables the tree.
+    public double barnesHutTheta = 0.5;
+
+    // Black-hole count from which forces go through the tree instead of the direct sum.
+    public int barnesHutMinBlackHoles = 128;
+
+    // Particle-particle gravity through ParticleMesh; off means particles are test masses.
+    public boolean selfGravity = false;
+
+    public double particleMass = 0.02;
+
+    // Mesh cells per side (rounded up to a power of two); the FFT runs on a zero-padded grid twice that size.
+    public int meshSize = 256;
+
+    // Half-width of the largest square the mesh covers around the holes' centre of mass.
+    public double meshMaxExtent = 6000.0;
+
+    // Paczynski-Wiita force and potential from per-hole RadialTable lookups in the scalar loop (the SIMD
+    // kernels, when available, stay exact; gathers make a vector table lookup slower than the formula).
+    public boolean radialTables = false;
+
+    // True if both parameter sets give the same acceleration field for the same black holes.
+    public boolean sameForces(PhysicsParams o) {
+        return G == o.G && c == o.c && softening == o.softening && maxAcceleration == o.maxAcceleration
+                && relativityMode == o.relativityMode && barnesHutTheta == o.barnesHutTheta
+                && barnesHutMinBlackHoles == o.barnesHutMinBlackHoles && selfGravity == o.selfGravity
+                && radialTables == o.radialTables;
+    }
+
+    public PhysicsParams copy() {
+        PhysicsParams p = new PhysicsParams();
+        p.copyFrom(this);
+        return p;
+    }
+
+    public void copyFrom(PhysicsParams o) {
+        this.G = o.G;
+        this.c = o.c;
+        this.softening = o.softening;
+        this.maxAcceleration = o.maxAcceleration;
+        this.killDistance = o.killDistance;
+        this.relativityMode = o.relativityMode;
+        this.enableAccretionDisk = o.enableAccretionDisk;
+        this.enableBHDynamics = o.enableBHDynamics;
+        this.gwLossStrength = o.gwLossStrength;
+        this.hermiteBlackHoles = o.hermiteBlackHoles;
+        this.vectorKernels = o.vectorKernels;
+        this.barnesHutTheta = o.barnesHutTheta;
+        this.barnesHutMinBlackHoles = o.barnesHutMinBlackHoles;
+        this.selfGravity = o.selfGravity;
+        this.particleMass = o.particleMass;
+        this.meshSize = o.meshSize;
+        this.meshMaxExtent = o.meshMaxExtent;
+        this.radialTables = o.radialTables;
+    }
+}
@@ -0,0 +1,162 @@
+package com.basas.blackholesim.core.physics;
+
+/*
+ * Tabulated Paczynski–Wiita force and potential of one black hole. Both depend
+ * only on r, so they are stored as cubic Hermite pieces over
+ *
+ *   d = r^2 - rs^2,
+ *
+ * which is free to compute from dx, dy and shrinks like r - rs near the
+ * horizon. Cells are spaced geometrically in d: the cell index is the top bits
+ * of d's IEEE representation (exponent plus CELL_BITS mantissa bits), and the
+ * remaining mantissa bits are the position inside the cell. A lookup is a
+ * shift, a subtract and a Horner step, without sqrt or division. Outside
+ * [minD, maxD) callers use the exact formula; build() measures the error at
+ * every cell midpoint and empties that range if it exceeds TOLERANCE.
+ */
+public final class RadialTable {
+
+    // 2^CELL_BITS cells per doubling of d; with 32 the interpolation error stays below about 3e-7 relative.
+    static final int CELL_BITS = 5;
+
+    private static final int SHIFT = 52 - CELL_BITS;
+    private static final long FRACTION_MASK = (1L << SHIFT) - 1;
+    private static final double FRACTION_SCALE = 1.0 / (1L << SHIFT);
+
+    // A table whose measured error is above this covers no range, so every lookup takes the exact path.
+    static final double TOLERANCE = 1e-6;
+
+    // Tables end at d = 2^40 (r around 10^6); larger distances take the exact path.
+    private static final double TOP = 0x1p40;
+    private static final int MIN_OCTAVES = 8;
+    private static final int MAX_OCTAVES = 96;
+
+    private double gm = Double.NaN;
+    private double rs = Double.NaN;
+    private double softTerm = Double.NaN;
+
+    private long base;
+    private double minD;
+    private double maxD;
+    // Four Hermite coefficients per cell: |a| / r and phi.
+    private double[] acc = new double[0];
+    private double[] pot = new double[0];
+    private double maxRelativeError;
+
+    public boolean matches(double gm, double rs, double softTerm) {
+        return gm == this.gm && rs == this.rs && softTerm == this.softTerm;
+    }
+
+    public void build(double gm, double rs, double softTerm) {
+        if (matches(gm, rs, softTerm)) return;
+
+        // Below r = rs + 1e-6 the model clamps, so the smooth pieces start just above it.
+        double clampD = Math.max(1e-12, 2e-6 * rs + 1e-12);
+        base = (Double.doubleToRawLongBits(clampD) >>> SHIFT) + 1;
+        minD = Double.longBitsToDouble(base << SHIFT);
+        int octaves = Math.max(MIN_OCTAVES, Math.min(MAX_OCTAVES, Math.getExponent(TOP) - Math.getExponent(minD)));
+        int cells = octaves << CELL_BITS;
+        maxD = Double.longBitsToDouble((base + cells) << SHIFT);
+
+        if (acc.length != cells * 4) {
+            acc = new double[cells * 4];
+            pot = new double[cells * 4];
+        }
+
+        this.gm = gm;
+        this.rs = rs;
+        this.softTerm = softTerm;
+
+        double d0 = minD;
+        for (int c = 0; c < cells; c++) {
+            double d1 = Double.longBitsToDouble((base + c + 1) << SHIFT);
+            double w = d1 - d0;
+            hermite(acc, c, accelerationOverR(d0), accelerationOverR(d1),
+                    w * accelerationSlope(d0), w * accelerationSlope(d1));
+            hermite(pot, c, potential(d0), potential(d1), w * potentialSlope(d0), w * potentialSlope(d1));
+            d0 = d1;
+        }
+
+        double worst = 0.0;
+        for (int c = 0; c < cells; c++) {
+            double lo = Double.longBitsToDouble((base + c) << SHIFT);
+            double hi = Double.longBitsToDouble((base + c + 1) << SHIFT);
+            double mid = 0.5 * (lo + hi);
+            worst = Math.max(worst, relativeError(lookupAcceleration(mid), accelerationOverR(mid)));
+            worst = Math.max(worst, relativeError(lookupPotential(mid), potential(mid)));
+        }
+        maxRelativeError = worst;
+        if (!(worst <= TOLERANCE)) {
+            minD = Double.POSITIVE_INFINITY;
+            maxD = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    public double minD() { return minD; }
+
+    public double maxD() { return maxD; }
+
+    public int cellCount() { return acc.length / 4; }
+
+    // Largest relative error of either table at the cell midpoints, measured after build; above TOLERANCE the
+    // range [minD, maxD) is empty.
+    public double maxRelativeError() { return maxRelativeError; }
+
+    // |a| / r at d = r^2 - rs^2, for minD <= d < maxD.
+    public double lookupAcceleration(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        int c = (int) ((bits >>> SHIFT) - base) << 2;
+        double t = (bits & FRACTION_MASK) * FRACTION_SCALE;
+        double[] k = acc;
+        return k[c] + t * (k[c + 1] + t * (k[c + 2] + t * k[c + 3]));
+    }
+
+    public double lookupPotential(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        int c = (int) ((bits >>> SHIFT) - base) << 2;
+        double t = (bits & FRACTION_MASK) * FRACTION_SCALE;
+        double[] k = pot;
+        return k[c] + t * (k[c + 1] + t * (k[c + 2] + t * k[c + 3]));
+    }
+
+    private static double relativeError(double value, double exact) {
+        return exact == 0.0 ? Math.abs(value) : Math.abs(value / exact - 1.0);
+    }
+
+    private static void hermite(double[] k, int c, double f0, double f1, double m0, double m1) {
+        int o = c << 2;
+        k[o] = f0;
+        k[o + 1] = m0;
+        k[o + 2] = 3.0 * (f1 - f0) - 2.0 * m0 - m1;
+        k[o + 3] = 2.0 * (f0 - f1) + m0 + m1;
+    }
+
+    // r - rs as d / (r + rs) to avoid the cancellation next to the horizon.
+    private double radius(double d) {
+        return Math.sqrt(d + rs * rs);
+    }
+
+    private double accelerationOverR(double d) {
+        double r = radius(d);
+        double denom = d / (r + rs) + softTerm;
+        return gm / (denom * denom * r);
+    }
+
+    private double accelerationSlope(double d) {
+        double r = radius(d);
+        double denom = d / (r + rs) + softTerm;
+        double g = gm / (denom * denom * r);
+        return -g * (2.0 / denom + 1.0 / r) / (2.0 * r);
+    }
+
+    private double potential(double d) {
+        double r = radius(d);
+        return -gm * (r + rs) / d;
+    }
+
+    private double potentialSlope(double d) {
+        double r = radius(d);
+        double u = d / (r + rs);
+        return gm / (u * u * 2.0 * r);
+    }
+}
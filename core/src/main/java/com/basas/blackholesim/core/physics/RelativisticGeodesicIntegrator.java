@@ -0,0 +1,261 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.BlackHole;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * RK4 on (r, phi, p_r) around the nearest black hole, with E and L fixed per
+ * particle. The metric constants (M, a, horizon, c / rg) of every hole are
+ * copied into flat arrays once per step, and the stages are evaluated inline
+ * without allocating. In Kerr mode p_r' = R'(r) / 2 with R = (P^2 - Delta (K +
+ * mu^2 r^2)) / r^4, differentiated in closed form.
+ */
+public class RelativisticGeodesicIntegrator implements Integrator {
+
+    private int substeps = 2;
+
+    // Per-hole constants for the current step, filled on the simulation thread before workers run.
+    private int holes = 0;
+    private double[] bx = new double[4];
+    private double[] by = new double[4];
+    private double[] mLen = new double[4];
+    private double[] spinA = new double[4];
+    private double[] killRadius = new double[4];
+    private double[] lambdaRate = new double[4];
+    private String[] ids = new String[4];
+
+    public void setSubsteps(int substeps) {
+        this.substeps = Math.max(1, substeps);
+    }
+
+    @Override
+    public void step(SimulationEngine engine, double dt, boolean pushTrail) {
+        if (dt <= 0) return;
+        if (engine.getParticleStore().isEmpty()) return;
+
+        PhysicsParams params = engine.getParams();
+        if (!prepareHoles(engine.getBlackHoles(), params)) return;
+
+        ParticleStore ps = engine.getParticleStore();
+        boolean kerr = params.relativityMode == RelativityMode.KERR;
+        double h = dt / substeps;
+        int n = substeps;
+        // Particles are independent, so each one takes all of its substeps in a single pass.
+        engine.forEachParticleRange((from, to) -> {
+            for (int i = from; i < to; i++) {
+                for (int s = 0; s < n && ps.isAlive(i); s++) {
+                    boolean dead = stepParticle(ps, i, h, pushTrail, kerr, params);
+                    if (dead) ps.kill(i);
+                }
+            }
+        });
+    }
+
+    private boolean prepareHoles(List<BlackHole> blackHoles, PhysicsParams params) {
+        int n = blackHoles.size();
+        if (n > bx.length) {
+            int cap = Math.max(n, bx.length * 2);
+            bx = Arrays.copyOf(bx, cap);
+            by = Arrays.copyOf(by, cap);
+            mLen = Arrays.copyOf(mLen, cap);
+            spinA = Arrays.copyOf(spinA, cap);
+            killRadius = Arrays.copyOf(killRadius, cap);
+            lambdaRate = Arrays.copyOf(lambdaRate, cap);
+            ids = Arrays.copyOf(ids, cap);
+        }
+        for (int j = 0; j < n; j++) {
+            BlackHole bh = blackHoles.get(j);
+            DerivedQuantities d = bh.derived(params);
+            bx[j] = bh.getPosition().x;
+            by[j] = bh.getPosition().y;
+            mLen[j] = d.rg();
+            spinA[j] = d.kerrA();
+            killRadius[j] = d.horizonRadius() * 1.0005;
+            lambdaRate[j] = params.c / d.rg();
+            ids[j] = bh.getId();
+        }
+        holes = n;
+        return n > 0;
+    }
+
+    private int nearestHole(double x, double y) {
+        int nearest = 0;
+        double dx = bx[0] - x;
+        double dy = by[0] - y;
+        double best = dx * dx + dy * dy;
+        for (int j = 1; j < holes; j++) {
+            dx = bx[j] - x;
+            dy = by[j] - y;
+            double d = dx * dx + dy * dy;
+            if (d < best) {
+                best = d;
+                nearest = j;
+            }
+        }
+        return nearest;
+    }
+
+    private boolean stepParticle(ParticleStore ps, int i, double dt, boolean pushTrail, boolean kerr,
+                                 PhysicsParams params) {
+        int j = nearestHole(ps.x[i], ps.y[i]);
+        double M = mLen[j];
+        if (M <= 1e-9) return false;
+        double a = kerr ? spinA[j] : 0.0;
+        double cx = bx[j];
+        double cy = by[j];
+
+        if (!ps.hasFlag(i, ParticleStore.FLAG_GEODESIC)) {
+            initializeConstants(ps, i, cx, cy, M, params);
+            ps.centralBhId[i] = ids[j];
+        }
+
+        if (ps.r[i] <= 0.0) {
+            double relX = ps.x[i] - cx;
+            double relY = ps.y[i] - cy;
+            ps.r[i] = Math.max(1e-6, Math.sqrt(relX * relX + relY * relY));
+            ps.phi[i] = Math.atan2(relY, relX);
+        }
+
+        double E = ps.E[i];
+        double L = ps.L[i];
+        boolean photon = ps.hasFlag(i, ParticleStore.FLAG_PHOTON);
+        double h = dt * lambdaRate[j];
+
+        // RK4 with the stage derivatives inlined; dr/dlambda = p_r.
+        double r = ps.r[i];
+        double phi = ps.phi[i];
+        double pr = ps.pr[i];
+
+        double k1r = pr;
+        double k1p = dPhi(r, M, a, E, L, kerr);
+        double k1pr = dPr(r, M, a, E, L, photon, kerr);
+
+        double r2 = r + 0.5 * h * k1r;
+        double k2r = pr + 0.5 * h * k1pr;
+        double k2p = dPhi(r2, M, a, E, L, kerr);
+        double k2pr = dPr(r2, M, a, E, L, photon, kerr);
+
+        double r3 = r + 0.5 * h * k2r;
+        double k3r = pr + 0.5 * h * k2pr;
+        double k3p = dPhi(r3, M, a, E, L, kerr);
+        double k3pr = dPr(r3, M, a, E, L, photon, kerr);
+
+        double r4 = r + h * k3r;
+        double k4r = pr + h * k3pr;
+        double k4p = dPhi(r4, M, a, E, L, kerr);
+        double k4pr = dPr(r4, M, a, E, L, photon, kerr);
+
+        double nr = r + (h / 6.0) * (k1r + 2.0 * k2r + 2.0 * k3r + k4r);
+        double nphi = phi + (h / 6.0) * (k1p + 2.0 * k2p + 2.0 * k3p + k4p);
+        double npr = pr + (h / 6.0) * (k1pr + 2.0 * k2pr + 2.0 * k3pr + k4pr);
+
+        if (Double.isFinite(nr) && Double.isFinite(nphi) && Double.isFinite(npr)) {
+            ps.r[i] = Math.max(1e-6, nr);
+            ps.phi[i] = wrapAngle(nphi);
+            ps.pr[i] = npr;
+        }
+
+        r = ps.r[i];
+        phi = ps.phi[i];
+
+        if (r <= killRadius[j]) {
+            return true;
+        }
+
+        double cos = Math.cos(phi);
+        double sin = Math.sin(phi);
+        double x = cx + r * cos;
+        double y = cy + r * sin;
+        ps.x[i] = x;
+        ps.y[i] = y;
+
+        double dr = ps.pr[i];
+        double dphi = dPhi(r, M, a, E, L, kerr);
+        ps.vx[i] = dr * cos - r * sin * dphi;
+        ps.vy[i] = dr * sin + r * cos * dphi;
+
+        if (Math.abs(x) > params.killDistance || Math.abs(y) > params.killDistance) return true;
+        if (pushTrail) ps.pushTrailPoint(i);
+        return false;
+    }
+
+    private void initializeConstants(ParticleStore ps, int i, double cx, double cy, double rg, PhysicsParams params) {
+        double relX = ps.x[i] - cx;
+        double relY = ps.y[i] - cy;
+        double r = Math.max(1e-6, Math.sqrt(relX * relX + relY * relY));
+        double phi = Math.atan2(relY, relX);
+
+        double vx = ps.vx[i];
+        double vy = ps.vy[i];
+
+        double c = Math.max(1e-9, params.c);
+
+        double v = Math.sqrt(vx * vx + vy * vy);
+        double vbar = Math.min(0.999, v / c);
+
+        double vr = (vx * Math.cos(phi) + vy * Math.sin(phi));
+        double vrbar = vr / c;
+
+        double omega = (relX * vy - relY * vx) / (r * r + 1e-9);
+        double L = (r * r) * (omega / c);
+
+        double mu = ps.hasFlag(i, ParticleStore.FLAG_PHOTON) ? 0.0 : 1.0;
+        double gamma = 1.0 / Math.sqrt(Math.max(1e-9, 1.0 - vbar * vbar));
+        double E = mu == 0.0 ? 1.0 : gamma;
+
+        ps.r[i] = r;
+        ps.phi[i] = phi;
+        ps.pr[i] = vrbar * rg;
+        ps.L[i] = L * rg;
+        ps.E[i] = E;
+        ps.setFlag(i, ParticleStore.FLAG_GEODESIC, true);
+    }
+
+    private static double dPhi(double r, double M, double a, double E, double L, boolean kerr) {
+        double r2 = Math.max(1e-9, r * r);
+        if (kerr) {
+            double delta = r * r - 2.0 * M * r + a * a;
+            double P = E * (r * r + a * a) - a * L;
+            return -((a * P) / Math.max(1e-9, delta) - a * E + L) / r2;
+        }
+        return L / r2;
+    }
+
+    private static double dPr(double r, double M, double a, double E, double L, boolean photon, boolean kerr) {
+        double r2 = r * r;
+        if (kerr) {
+            // F = R / r^4, F' = R' / r^4 - 4 R / r^5.
+            double mu2 = photon ? 0.0 : 1.0;
+            double b = L - a * E;
+            double K = b * b + mu2 * r2;
+            double delta = r2 - 2.0 * M * r + a * a;
+            double P = E * (r2 + a * a) - a * L;
+            double R = P * P - delta * K;
+            double dR = 4.0 * E * r * P - (2.0 * r - 2.0 * M) * K - 2.0 * mu2 * r * delta;
+            double r4 = Math.max(1e-12, r2 * r2);
+            return 0.5 * (dR - 4.0 * R / r) / r4;
+        }
+        double r3 = r2 * r;
+        double r4 = r2 * r2;
+        double termL = L * L * (1.0 / Math.max(1e-12, r3) - 3.0 * M / Math.max(1e-12, r4));
+        if (photon) return termL;
+        return termL - M / Math.max(1e-12, r2);
+    }
+
+    private double wrapAngle(double a) {
+        double twoPi = Math.PI * 2.0;
+        a = a % twoPi;
+        if (a < -Math.PI) a += twoPi;
+        if (a > Math.PI) a -= twoPi;
+        return a;
+    }
+
+    @Override
+    public String name() {
+        return "Relativistic Geodesics";
+    }
+}
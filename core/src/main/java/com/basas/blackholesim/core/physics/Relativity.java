@@ -7,9 +7,13 @@ public final class Relativity {
     private Relativity() {}
 
     public static double massLength(BlackHole bh, PhysicsParams p) {
+        return bh.derived(p).rg();
+    }
+
+    public static double massLength(double mass, PhysicsParams p) {
         double c2 = p.c * p.c;
         if (c2 <= 0) return 0;
-        return (p.G * bh.getMass()) / c2;
+        return (p.G * mass) / c2;
     }
 
     public static double schwarzschildRadius(BlackHole bh, PhysicsParams p) {
@@ -17,22 +21,27 @@ public final class Relativity {
     }
 
     public static double kerrHorizonRadius(BlackHole bh, PhysicsParams p) {
-        double rg = massLength(bh, p);
-        double a = clamp01(bh.getSpin());
+        return kerrHorizonRadius(massLength(bh, p), bh.getSpin());
+    }
+
+    public static double kerrHorizonRadius(double rg, double spin) {
+        double a = clamp01(spin);
         double term = Math.sqrt(Math.max(0.0, 1.0 - a * a));
         return rg * (1.0 + term);
     }
 
     public static double eventHorizonRadius(BlackHole bh, PhysicsParams p) {
-        if (p.relativityMode == RelativityMode.KERR) return kerrHorizonRadius(bh, p);
-        return schwarzschildRadius(bh, p);
+        return bh.derived(p).horizonRadius();
     }
 
     public static double iscoRadius(BlackHole bh, PhysicsParams p) {
-        double rg = massLength(bh, p);
+        return bh.derived(p).iscoRadius();
+    }
+
+    public static double iscoRadius(double rg, double spin, RelativityMode mode) {
         if (rg <= 0) return 0;
-        double a = clamp01(bh.getSpin());
-        if (p.relativityMode != RelativityMode.KERR || a == 0.0) return 6.0 * rg;
+        double a = clamp01(spin);
+        if (mode != RelativityMode.KERR || a == 0.0) return 6.0 * rg;
 
         double z1 = 1.0 + Math.cbrt(1.0 - a * a) * (Math.cbrt(1.0 + a) + Math.cbrt(1.0 - a));
         double z2 = Math.sqrt(3.0 * a * a + z1 * z1);
@@ -40,6 +49,10 @@ public final class Relativity {
         return rI * rg;
     }
 
+    static double clampSpin(double spin) {
+        return clamp01(spin);
+    }
+
     public static double keplerianSpeed(BlackHole bh, PhysicsParams p, double r) {
         double rg = massLength(bh, p);
         if (rg <= 0 || r <= 0) return 0;
@@ -0,0 +1,160 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+public class RungeKutta4Integrator implements Integrator {
+
+    private static final int BLOCK = 256;
+
+    private int substeps = 2;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public int getSubsteps() { return substeps; }
+
+    public void setSubsteps(int substeps) {
+        this.substeps = Math.max(1, Math.min(16, substeps));
+    }
+
+    @Override
+    public String name() {
+        return "Runge–Kutta 4";
+    }
+
+    @Override
+    public void step(SimulationEngine engine, double dt, boolean pushTrails) {
+        if (dt <= 0) return;
+
+        int substeps = this.substeps;
+        ParticleStore ps = engine.getParticleStore();
+        engine.forEachParticleRange((from, to) -> {
+            Scratch s = scratch.get();
+            for (int b = from; b < to; b += BLOCK) {
+                stepBlock(engine, ps, s, b, Math.min(to, b + BLOCK), dt, substeps, pushTrails);
+            }
+        });
+    }
+
+    private void stepBlock(SimulationEngine engine, ParticleStore ps, Scratch s, int from, int to, double dt,
+                           int substeps, boolean pushTrails) {
+        PhysicsParams params = engine.getParams();
+        double h = dt / substeps;
+
+        if (pushTrails) {
+            for (int i = from; i < to; i++) {
+                if (ps.isAlive(i)) ps.pushTrailPoint(i);
+            }
+        }
+
+        for (int sub = 0; sub < substeps; sub++) {
+            int m = 0;
+            for (int i = from; i < to; i++) {
+                if (!ps.isAlive(i)) continue;
+
+                if (engine.isInsideAnyEventHorizon(ps.x[i], ps.y[i])) {
+                    ps.kill(i);
+                    continue;
+                }
+                s.idx[m++] = i;
+            }
+            if (m == 0) return;
+
+            rk4Block(engine, ps, s, m, h);
+
+            for (int k = 0; k < m; k++) {
+                int i = s.idx[k];
+                if (Math.abs(ps.x[i]) > params.killDistance || Math.abs(ps.y[i]) > params.killDistance) {
+                    ps.kill(i);
+                }
+            }
+        }
+    }
+
+    private void rk4Block(SimulationEngine engine, ParticleStore ps, Scratch s, int m, double h) {
+        int[] idx = s.idx;
+        double[] sx = s.sx;
+        double[] sy = s.sy;
+        double[] ax = s.ax;
+        double[] ay = s.ay;
+
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            sx[k] = ps.x[i];
+            sy[k] = ps.y[i];
+        }
+        engine.accelerations(sx, sy, ax, ay, 0, m);
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            double vx = ps.vx[i];
+            double vy = ps.vy[i];
+
+            s.sumX[k] = vx;
+            s.sumY[k] = vy;
+            s.sumVx[k] = ax[k];
+            s.sumVy[k] = ay[k];
+
+            sx[k] = ps.x[i] + 0.5 * h * vx;
+            sy[k] = ps.y[i] + 0.5 * h * vy;
+            s.svx[k] = vx + 0.5 * h * ax[k];
+            s.svy[k] = vy + 0.5 * h * ay[k];
+        }
+
+        engine.accelerations(sx, sy, ax, ay, 0, m);
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            double k2x = s.svx[k];
+            double k2y = s.svy[k];
+
+            s.sumX[k] += 2.0 * k2x;
+            s.sumY[k] += 2.0 * k2y;
+            s.sumVx[k] += 2.0 * ax[k];
+            s.sumVy[k] += 2.0 * ay[k];
+
+            sx[k] = ps.x[i] + 0.5 * h * k2x;
+            sy[k] = ps.y[i] + 0.5 * h * k2y;
+            s.svx[k] = ps.vx[i] + 0.5 * h * ax[k];
+            s.svy[k] = ps.vy[i] + 0.5 * h * ay[k];
+        }
+
+        engine.accelerations(sx, sy, ax, ay, 0, m);
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            double k3x = s.svx[k];
+            double k3y = s.svy[k];
+
+            s.sumX[k] += 2.0 * k3x;
+            s.sumY[k] += 2.0 * k3y;
+            s.sumVx[k] += 2.0 * ax[k];
+            s.sumVy[k] += 2.0 * ay[k];
+
+            sx[k] = ps.x[i] + h * k3x;
+            sy[k] = ps.y[i] + h * k3y;
+            s.svx[k] = ps.vx[i] + h * ax[k];
+            s.svy[k] = ps.vy[i] + h * ay[k];
+        }
+
+        engine.accelerations(sx, sy, ax, ay, 0, m);
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            ps.x[i] = ps.x[i] + (h / 6.0) * (s.sumX[k] + s.svx[k]);
+            ps.y[i] = ps.y[i] + (h / 6.0) * (s.sumY[k] + s.svy[k]);
+            ps.vx[i] = ps.vx[i] + (h / 6.0) * (s.sumVx[k] + ax[k]);
+            ps.vy[i] = ps.vy[i] + (h / 6.0) * (s.sumVy[k] + ay[k]);
+        }
+    }
+
+    private static final class Scratch {
+        final int[] idx = new int[BLOCK];
+        final double[] sx = new double[BLOCK];
+        final double[] sy = new double[BLOCK];
+        final double[] svx = new double[BLOCK];
+        final double[] svy = new double[BLOCK];
+        final double[] ax = new double[BLOCK];
+        final double[] ay = new double[BLOCK];
+        final double[] sumX = new double[BLOCK];
+        final double[] sumY = new double[BLOCK];
+        final double[] sumVx = new double[BLOCK];
+        final double[] sumVy = new double[BLOCK];
+    }
+}
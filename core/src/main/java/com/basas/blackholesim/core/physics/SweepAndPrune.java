@@ -0,0 +1,125 @@
+package com.basas.blackholesim.core.physics;
+
+import java.util.Arrays;
+
+/*
+ * Close-pair queries over the black holes: bodies are kept sorted by x, and a
+ * pair is only compared when its x gap is already smaller than what it is
+ * being tested for. The order is kept between calls and re-sorted by
+ * insertion, which is close to linear while the holes move a little per frame.
+ *
+ * Used on the engine thread for merger detection (overlapping capture
+ * circles) and for pairing holes with their mutual nearest neighbour.
+ */
+public final class SweepAndPrune {
+
+    private int n = 0;
+    private int[] order = new int[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] radius = new double[0];
+    private double maxRadius = 0.0;
+
+    private int pairCount = 0;
+    private int[] pairs = new int[0];
+
+    // Loads the bodies and sorts them by x; radius is only used by overlaps().
+    public void update(double[] bx, double[] by, double[] bradius, int count) {
+        if (x.length < count) {
+            int cap = Math.max(count, x.length * 2);
+            x = Arrays.copyOf(x, cap);
+            y = Arrays.copyOf(y, cap);
+            radius = Arrays.copyOf(radius, cap);
+            order = Arrays.copyOf(order, cap);
+        }
+        if (count != n) {
+            for (int i = 0; i < count; i++) order[i] = i;
+        }
+        n = count;
+        maxRadius = 0.0;
+        for (int i = 0; i < count; i++) {
+            x[i] = bx[i];
+            y[i] = by[i];
+            radius[i] = bradius[i];
+            maxRadius = Math.max(maxRadius, bradius[i]);
+        }
+
+        for (int p = 1; p < count; p++) {
+            int i = order[p];
+            double xi = x[i];
+            int q = p - 1;
+            while (q >= 0 && x[order[q]] > xi) {
+                order[q + 1] = order[q];
+                q--;
+            }
+            order[q + 1] = i;
+        }
+    }
+
+    // Collects every pair (i < j) whose circles overlap, i.e. distance <= radius[i] + radius[j].
+    public int overlaps() {
+        pairCount = 0;
+        for (int p = 0; p < n; p++) {
+            int i = order[p];
+            double reach = radius[i] + maxRadius;
+            for (int q = p + 1; q < n; q++) {
+                int j = order[q];
+                double dx = x[j] - x[i];
+                if (dx > reach) break;
+                double dy = y[j] - y[i];
+                double r = radius[i] + radius[j];
+                if (dx * dx + dy * dy <= r * r) addPair(Math.min(i, j), Math.max(i, j));
+            }
+        }
+        return pairCount;
+    }
+
+    // Collects every pair (i < j) of mutual nearest neighbours.
+    public int mutualNearestPairs(int[] nearest) {
+        pairCount = 0;
+        for (int p = 0; p < n; p++) {
+            int i = order[p];
+            double best = Double.POSITIVE_INFINITY;
+            int found = -1;
+            for (int q = p + 1; q < n; q++) {
+                int j = order[q];
+                double dx = x[j] - x[i];
+                if (dx * dx >= best) break;
+                double dy = y[j] - y[i];
+                double d = dx * dx + dy * dy;
+                if (d < best) {
+                    best = d;
+                    found = j;
+                }
+            }
+            for (int q = p - 1; q >= 0; q--) {
+                int j = order[q];
+                double dx = x[i] - x[j];
+                if (dx * dx >= best) break;
+                double dy = y[j] - y[i];
+                double d = dx * dx + dy * dy;
+                if (d < best) {
+                    best = d;
+                    found = j;
+                }
+            }
+            nearest[i] = found;
+        }
+        for (int i = 0; i < n; i++) {
+            int j = nearest[i];
+            if (j > i && nearest[j] == i) addPair(i, j);
+        }
+        return pairCount;
+    }
+
+    public int pairA(int k) { return pairs[2 * k]; }
+
+    public int pairB(int k) { return pairs[2 * k + 1]; }
+
+    private void addPair(int i, int j) {
+        if (pairs.length < 2 * pairCount + 2) pairs = Arrays.copyOf(pairs, Math.max(16, pairs.length * 2));
+        pairs[2 * pairCount] = i;
+        pairs[2 * pairCount + 1] = j;
+        pairCount++;
+    }
+}
@@ -0,0 +1,97 @@
+package com.basas.blackholesim.core.physics;
+
+import com.basas.blackholesim.core.SimulationEngine;
+import com.basas.blackholesim.core.entities.ParticleStore;
+
+
+public class VelocityVerletIntegrator implements Integrator {
+
+    private static final int BLOCK = 256;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    @Override
+    public String name() {
+        return "Velocity Verlet";
+    }
+
+    @Override
+    public void step(SimulationEngine engine, double dt, boolean pushTrails) {
+        if (dt <= 0) return;
+
+        ParticleStore ps = engine.getParticleStore();
+        engine.forEachParticleRange((from, to) -> {
+            Scratch s = scratch.get();
+            for (int b = from; b < to; b += BLOCK) {
+                stepBlock(engine, ps, s, b, Math.min(to, b + BLOCK), dt, pushTrails);
+            }
+        });
+    }
+
+    private void stepBlock(SimulationEngine engine, ParticleStore ps, Scratch s, int from, int to, double dt, boolean pushTrails) {
+        PhysicsParams params = engine.getParams();
+        int[] idx = s.idx;
+        double[] px = s.px;
+        double[] py = s.py;
+
+        int m = 0;
+        for (int i = from; i < to; i++) {
+            if (!ps.isAlive(i)) continue;
+
+            if (pushTrails) ps.pushTrailPoint(i);
+
+            if (engine.isInsideAnyEventHorizon(ps.x[i], ps.y[i])) {
+                ps.kill(i);
+                continue;
+            }
+
+            idx[m] = i;
+            px[m] = ps.x[i];
+            py[m] = ps.y[i];
+            m++;
+        }
+        if (m == 0) return;
+
+        engine.accelerations(px, py, s.a0x, s.a0y, 0, m);
+
+        double halfDt2 = 0.5 * dt * dt;
+
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            double nx = px[k] + ps.vx[i] * dt + s.a0x[k] * halfDt2;
+            double ny = py[k] + ps.vy[i] * dt + s.a0y[k] * halfDt2;
+
+            ps.x[i] = nx;
+            ps.y[i] = ny;
+            px[k] = nx;
+            py[k] = ny;
+        }
+
+        engine.accelerations(px, py, s.a1x, s.a1y, 0, m);
+
+        for (int k = 0; k < m; k++) {
+            int i = idx[k];
+            if (engine.isInsideAnyEventHorizon(px[k], py[k])) {
+                ps.kill(i);
+                continue;
+            }
+
+            ps.vx[i] = ps.vx[i] + 0.5 * (s.a0x[k] + s.a1x[k]) * dt;
+            ps.vy[i] = ps.vy[i] + 0.5 * (s.a0y[k] + s.a1y[k]) * dt;
+
+            if (Math.abs(px[k]) > params.killDistance || Math.abs(py[k]) > params.killDistance) {
+                ps.kill(i);
+            }
+        }
+    }
+
+    private static final class Scratch {
+        final int[] idx = new int[BLOCK];
+        final double[] px = new double[BLOCK];
+        final double[] py = new double[BLOCK];
+        final double[] a0x = new double[BLOCK];
+        final double[] a0y = new double[BLOCK];
+        final double[] a1x = new double[BLOCK];
+        final double[] a1y = new double[BLOCK];
+    }
+}
@@ -0,0 +1,143 @@
+package com.basas.blackholesim.core.physics.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * jdk.incubator.vector kernels for the batched gravity models. Each method
+ * processes whole lanes from 'from' and returns the first index it did not
+ * handle; the caller finishes the tail with its scalar loop. Only touch this
+ * class through GravityKernels, which checks that the module is present.
+ */
+public final class VectorGravityKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    public static final int LANES = SPECIES.length();
+
+    private VectorGravityKernels() {}
+
+    public static int newtonianAcceleration(double[] bx, double[] by, double[] gm, int n, double soft2, double maxAcc,
+                                            double[] x, double[] y, double[] outAx, double[] outAy, int from, int to) {
+        int upper = from + SPECIES.loopBound(to - from);
+        DoubleVector vSoft2 = DoubleVector.broadcast(SPECIES, soft2);
+        DoubleVector eps = DoubleVector.broadcast(SPECIES, 1e-12);
+
+        for (int i = from; i < upper; i += LANES) {
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector ax = DoubleVector.zero(SPECIES);
+            DoubleVector ay = DoubleVector.zero(SPECIES);
+
+            for (int j = 0; j < n; j++) {
+                DoubleVector dx = DoubleVector.broadcast(SPECIES, bx[j]).sub(px);
+                DoubleVector dy = DoubleVector.broadcast(SPECIES, by[j]).sub(py);
+
+                DoubleVector r2 = dx.mul(dx).add(dy.mul(dy));
+                DoubleVector r = r2.max(eps).sqrt();
+                DoubleVector aMag = DoubleVector.broadcast(SPECIES, gm[j]).div(r2.add(vSoft2));
+
+                ax = ax.add(dx.div(r).mul(aMag));
+                ay = ay.add(dy.div(r).mul(aMag));
+            }
+
+            store(ax, ay, maxAcc, outAx, outAy, i);
+        }
+        return upper;
+    }
+
+    public static int paczynskiWiitaAcceleration(double[] bx, double[] by, double[] gm, double[] rs, int n,
+                                                 double softTerm, double maxAcc, double[] x, double[] y,
+                                                 double[] outAx, double[] outAy, int from, int to) {
+        int upper = from + SPECIES.loopBound(to - from);
+        DoubleVector vSoft = DoubleVector.broadcast(SPECIES, softTerm);
+        DoubleVector eps = DoubleVector.broadcast(SPECIES, 1e-12);
+        DoubleVector minDenom = DoubleVector.broadcast(SPECIES, 1e-6);
+
+        for (int i = from; i < upper; i += LANES) {
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector ax = DoubleVector.zero(SPECIES);
+            DoubleVector ay = DoubleVector.zero(SPECIES);
+
+            for (int j = 0; j < n; j++) {
+                DoubleVector dx = DoubleVector.broadcast(SPECIES, bx[j]).sub(px);
+                DoubleVector dy = DoubleVector.broadcast(SPECIES, by[j]).sub(py);
+
+                DoubleVector r = dx.mul(dx).add(dy.mul(dy)).max(eps).sqrt();
+                DoubleVector vRs = DoubleVector.broadcast(SPECIES, rs[j]);
+
+                DoubleVector effectiveR = r.max(rs[j] + 1e-6);
+                DoubleVector denom = effectiveR.sub(vRs).add(vSoft).max(minDenom);
+                DoubleVector aMag = DoubleVector.broadcast(SPECIES, gm[j]).div(denom.mul(denom));
+
+                ax = ax.add(dx.div(r).mul(aMag));
+                ay = ay.add(dy.div(r).mul(aMag));
+            }
+
+            store(ax, ay, maxAcc, outAx, outAy, i);
+        }
+        return upper;
+    }
+
+    public static int newtonianPotential(double[] bx, double[] by, double[] gm, int n, double soft2,
+                                         double[] x, double[] y, double[] outPhi, int from, int to) {
+        int upper = from + SPECIES.loopBound(to - from);
+        DoubleVector vSoft2 = DoubleVector.broadcast(SPECIES, soft2);
+        DoubleVector eps = DoubleVector.broadcast(SPECIES, 1e-12);
+
+        for (int i = from; i < upper; i += LANES) {
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector phi = DoubleVector.zero(SPECIES);
+
+            for (int j = 0; j < n; j++) {
+                DoubleVector dx = DoubleVector.broadcast(SPECIES, bx[j]).sub(px);
+                DoubleVector dy = DoubleVector.broadcast(SPECIES, by[j]).sub(py);
+                DoubleVector r = dx.mul(dx).add(dy.mul(dy)).add(vSoft2).sqrt();
+
+                phi = phi.sub(DoubleVector.broadcast(SPECIES, gm[j]).div(r.max(eps)));
+            }
+            phi.intoArray(outPhi, i);
+        }
+        return upper;
+    }
+
+    public static int paczynskiWiitaPotential(double[] bx, double[] by, double[] gm, double[] rs, int n,
+                                              double[] x, double[] y, double[] outPhi, int from, int to) {
+        int upper = from + SPECIES.loopBound(to - from);
+        DoubleVector eps = DoubleVector.broadcast(SPECIES, 1e-12);
+        DoubleVector minDenom = DoubleVector.broadcast(SPECIES, 1e-6);
+
+        for (int i = from; i < upper; i += LANES) {
+            DoubleVector px = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector py = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector phi = DoubleVector.zero(SPECIES);
+
+            for (int j = 0; j < n; j++) {
+                DoubleVector dx = DoubleVector.broadcast(SPECIES, bx[j]).sub(px);
+                DoubleVector dy = DoubleVector.broadcast(SPECIES, by[j]).sub(py);
+                DoubleVector r = dx.mul(dx).add(dy.mul(dy)).max(eps).sqrt();
+                DoubleVector denom = r.sub(rs[j]).max(minDenom);
+
+                phi = phi.sub(DoubleVector.broadcast(SPECIES, gm[j]).div(denom));
+            }
+            phi.intoArray(outPhi, i);
+        }
+        return upper;
+    }
+
+    private static void store(DoubleVector ax, DoubleVector ay, double maxAcc, double[] outAx, double[] outAy, int i) {
+        DoubleVector aLen = ax.mul(ax).add(ay.mul(ay)).sqrt();
+        VectorMask<Double> over = aLen.compare(VectorOperators.GT, maxAcc);
+        if (over.anyTrue()) {
+            DoubleVector k = DoubleVector.broadcast(SPECIES, maxAcc).div(aLen.max(1e-12));
+            ax = ax.blend(ax.mul(k), over);
+            ay = ay.blend(ay.mul(k), over);
+        }
+        ax.intoArray(outAx, i);
+        ay.intoArray(outAy, i);
+    }
+}